@@ -0,0 +1,234 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.TransactionRequest;
+import com.expensetracker.dto.TransactionSummary;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.CacheInvalidationService;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.DataVersionService;
+import com.expensetracker.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Two application instances on one embedded PostgreSQL: writes go through instance A while instance B keeps
+// warm caches, and every check reads through B. Measures how long B takes to see single writes, how far a
+// burst of writes coalesces, and that B drops its caches after its listener connection is cut.
+//
+// Options (-name=value): users, transactions (per user), samples, burst, writers
+public final class CacheInvalidationHarness {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int userCount = Integer.parseInt(options.getOrDefault("users", "50"));
+        int transactions = Integer.parseInt(options.getOrDefault("transactions", "2000"));
+        int samples = Integer.parseInt(options.getOrDefault("samples", "200"));
+        int burst = Integer.parseInt(options.getOrDefault("burst", "5000"));
+        int writers = Integer.parseInt(options.getOrDefault("writers", "4"));
+
+        // Both in-memory caches on, so B has per-user state that A's writes can leave stale
+        Map<String, Object> properties = Map.of(
+                "analytics.cache.enabled", true,
+                "search.index.enabled", true,
+                "recurring.scheduler.initial-delay-ms", Long.MAX_VALUE / 2,
+                "budget.reconciliation.initial-delay-ms", Long.MAX_VALUE / 2);
+        try (SeededApplication a = SeededApplication.start(WebApplicationType.NONE, properties);
+             SeededApplication b = a.startPeer(WebApplicationType.NONE, properties)) {
+            List<SyntheticDataset> datasets = new ArrayList<>();
+            for (int i = 0; i < userCount; i++) {
+                datasets.add(new SyntheticDataset(UUID.nameUUIDFromBytes(("invalidation-user-" + i).getBytes()),
+                        transactions, SyntheticDataset.DEFAULT_SEED + i));
+            }
+            a.seed(datasets);
+            awaitConnected(a);
+            awaitConnected(b);
+            warm(b, datasets);
+
+            measureLatency(a, b, datasets, samples);
+            measureBurst(a, b, datasets, burst, writers);
+            measureReconnect(a, b, datasets.get(0));
+        }
+        System.exit(0);
+    }
+
+    // One write at a time, timing until B's data version for the user moves
+    private static void measureLatency(SeededApplication a, SeededApplication b, List<SyntheticDataset> datasets,
+                                       int samples) throws InterruptedException {
+        TransactionService writer = a.getBean(TransactionService.class);
+        DataVersionService versions = b.getBean(DataVersionService.class);
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toMicros(10), 3);
+        Random random = new Random(SyntheticDataset.DEFAULT_SEED);
+        int stale = 0;
+        for (int i = 0; i < samples; i++) {
+            SyntheticDataset dataset = datasets.get(random.nextInt(datasets.size()));
+            UUID userId = dataset.getUserId();
+            String before = versions.getVersion(userId);
+            writer.createTransaction(request(dataset, random), userId);
+            long written = System.nanoTime();
+            while (versions.getVersion(userId).equals(before)) {
+                if (System.nanoTime() - written > TIMEOUT_NANOS) {
+                    stale++;
+                    break;
+                }
+                TimeUnit.MICROSECONDS.sleep(100);
+            }
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - written));
+            // Let the next write start from an idle flush cycle
+            TimeUnit.MILLISECONDS.sleep(random.nextInt(30));
+        }
+        System.out.printf("Single writes: %d, visible on B after p50 %.1f ms, p99 %.1f ms, max %.1f ms, "
+                        + "never visible: %d%n",
+                samples, latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0, stale);
+    }
+
+    // Writes as fast as the writers go, then checks B against the database for every user
+    private static void measureBurst(SeededApplication a, SeededApplication b, List<SyntheticDataset> datasets,
+                                     int burst, int writers) throws Exception {
+        TransactionService writer = a.getBean(TransactionService.class);
+        MeterRegistry metersA = a.getBean(MeterRegistry.class);
+        MeterRegistry metersB = b.getBean(MeterRegistry.class);
+        double eventsBefore = count(metersA, "cache.invalidation.events.sent");
+        double notificationsBefore = count(metersA, "cache.invalidation.notifications.sent");
+        double appliedBefore = count(metersB, "cache.invalidation.events.applied");
+
+        warm(b, datasets);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> results = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            results.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = seed; i < burst; i += writers) {
+                    SyntheticDataset dataset = datasets.get(random.nextInt(datasets.size()));
+                    writer.createTransaction(request(dataset, random), dataset.getUserId());
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+
+        // Quiet once B has applied everything A sent
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        double sent;
+        do {
+            TimeUnit.MILLISECONDS.sleep(100);
+            sent = count(metersA, "cache.invalidation.events.sent") - eventsBefore;
+        } while (count(metersB, "cache.invalidation.events.applied") - appliedBefore < sent
+                && System.nanoTime() < deadline);
+
+        double notifications = count(metersA, "cache.invalidation.notifications.sent") - notificationsBefore;
+        System.out.printf("Burst: %d writes in %d ms, published as %.0f user events in %.0f notifications "
+                        + "(%.1f writes per notification), %.0f applied on B%n",
+                burst, TimeUnit.NANOSECONDS.toMillis(elapsed), sent, notifications,
+                burst / Math.max(notifications, 1),
+                count(metersB, "cache.invalidation.events.applied") - appliedBefore);
+
+        JdbcTemplate jdbc = b.getBean(JdbcTemplate.class);
+        TransactionService reader = b.getBean(TransactionService.class);
+        int mismatched = 0;
+        for (SyntheticDataset dataset : datasets) {
+            TransactionSummary summary = reader.getTransactionSummary(dataset.getUserId(), null, null);
+            BigDecimal expense = jdbc.queryForObject(
+                    "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE user_id = ? AND type = 'EXPENSE'",
+                    BigDecimal.class, dataset.getUserId());
+            if (summary.getTotalExpense().compareTo(expense) != 0) {
+                mismatched++;
+            }
+        }
+        System.out.printf("Burst: B's summaries disagree with the database for %d of %d users%n",
+                mismatched, datasets.size());
+    }
+
+    // Cuts both listeners and writes while they are down; B must not keep serving what it cached before
+    private static void measureReconnect(SeededApplication a, SeededApplication b, SyntheticDataset dataset)
+            throws InterruptedException {
+        UUID userId = dataset.getUserId();
+        TransactionService reader = b.getBean(TransactionService.class);
+        MeterRegistry metersB = b.getBean(MeterRegistry.class);
+        BigDecimal cached = reader.getTransactionSummary(userId, null, null).getTotalExpense();
+        double flushesBefore = count(metersB, "cache.invalidation.full-flushes");
+
+        int terminated = a.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT count(pg_terminate_backend(pid)) FROM pg_stat_activity WHERE application_name = ?",
+                Integer.class, CacheInvalidationService.LISTENER_NAME);
+        a.getBean(TransactionService.class).createTransaction(
+                new TransactionRequest(null, new BigDecimal("1000.00"), TransactionType.EXPENSE,
+                        "written while disconnected", LocalDate.now()), userId);
+
+        long started = System.nanoTime();
+        while (count(metersB, "cache.invalidation.full-flushes") == flushesBefore
+                && System.nanoTime() - started < TIMEOUT_NANOS) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        BigDecimal after = reader.getTransactionSummary(userId, null, null).getTotalExpense();
+        System.out.printf("Reconnect: %d listeners cut, B flushed after %d ms, expense total %s -> %s (%s)%n",
+                terminated, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), cached, after,
+                after.subtract(cached).compareTo(new BigDecimal("1000.00")) == 0 ? "fresh" : "STALE");
+    }
+
+    private static void warm(SeededApplication app, List<SyntheticDataset> datasets) {
+        TransactionService transactions = app.getBean(TransactionService.class);
+        CategoryService categories = app.getBean(CategoryService.class);
+        for (SyntheticDataset dataset : datasets) {
+            transactions.getTransactionSummary(dataset.getUserId(), null, null);
+            categories.getAllCategoriesByUser(dataset.getUserId());
+        }
+    }
+
+    private static void awaitConnected(SeededApplication app) throws InterruptedException {
+        CacheInvalidationService service = app.getBean(CacheInvalidationService.class);
+        long started = System.nanoTime();
+        while (!service.isConnected() && System.nanoTime() - started < TIMEOUT_NANOS) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static TransactionRequest request(SyntheticDataset dataset, Random random) {
+        SyntheticDataset.CategorySpec category = dataset.getCategories().get(
+                random.nextInt(dataset.getCategories().size()));
+        return new TransactionRequest(category.id(), BigDecimal.valueOf(100 + random.nextInt(100_000), 2),
+                category.type(), "invalidation check", LocalDate.now().minusDays(random.nextInt(365)));
+    }
+
+    private static double count(MeterRegistry registry, String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String[] pair = token.replaceFirst("^-+", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected -name=value but got: " + token);
+                }
+                options.put(pair[0], pair[1]);
+            }
+        }
+        return options;
+    }
+}
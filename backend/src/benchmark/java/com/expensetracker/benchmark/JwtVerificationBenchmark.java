@@ -0,0 +1,60 @@
+package com.expensetracker.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.expensetracker.config.JwtConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-request auth cost: the old rebuild-everything path against the shared verifier and the verified-token cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark";
+
+    private String token;
+    private JWTVerifier sharedVerifier;
+    private JwtConfig jwtConfig;
+
+    @Setup
+    public void setUp() {
+        token = JWT.create()
+                .withSubject(UUID.randomUUID().toString())
+                .withClaim("email", "bench@example.com")
+                .withExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .sign(Algorithm.HMAC256(SECRET));
+        sharedVerifier = JWT.require(Algorithm.HMAC256(SECRET)).acceptLeeway(5).build();
+        jwtConfig = new JwtConfig(SECRET, 10_000, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public DecodedJWT rebuildVerifierPerCall() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        JWTVerifier verifier = JWT.require(algorithm)
+                .acceptLeeway(5)
+                .build();
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT sharedVerifier() {
+        return sharedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT cachedVerifyToken() {
+        return jwtConfig.verifyToken(token);
+    }
+}
@@ -0,0 +1,329 @@
+package com.expensetracker.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.expensetracker.dto.TransactionRequest;
+import com.expensetracker.model.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+
+// Open-loop HTTP load test against the real app on an embedded PostgreSQL.
+// Requests are scheduled at a fixed rate and latency is measured from the intended send time,
+// so a stalled server shows up in the tail instead of silently lowering the offered load.
+//
+// Options (-name=value): users, transactions, distribution (uniform|skewed), rate (req/s),
+// duration and warmup (seconds), concurrency (max in-flight), mix (endpoint:weight,...), out
+public final class LoadHarness {
+
+    private static final String DEFAULT_MIX =
+            "list:25,page:20,summary:20,categories:15,pdf:5,create:10,delete:5";
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private enum Endpoint {
+        LIST, PAGE, SUMMARY, CATEGORIES, PDF, CREATE, DELETE
+    }
+
+    private record LoadUser(UUID id, String token, List<UUID> expenseCategories, Queue<UUID> created) {
+    }
+
+    private static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final Map<String, String> options;
+    private final Map<Endpoint, Stats> stats = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<LoadUser> users = new ArrayList<>();
+    private HttpClient client;
+    private String baseUrl;
+
+    private LoadHarness(Map<String, String> options) {
+        this.options = options;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(parseOptions(args)).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        int userCount = intOption("users", 10);
+        int transactions = intOption("transactions", 10_000);
+        String secret = UUID.randomUUID() + "-" + UUID.randomUUID();
+
+        List<SyntheticDataset> datasets = datasets(userCount, transactions, option("distribution", "uniform"));
+        try (SeededApplication app = SeededApplication.start(WebApplicationType.SERVLET, Map.of(
+                "server.port", 0,
+                "supabase.jwt.secret", secret))) {
+            long seedStart = System.nanoTime();
+            app.seed(datasets);
+            System.out.printf("Seeded %d users / %d transactions in %d ms%n", datasets.size(),
+                    datasets.stream().mapToLong(SyntheticDataset::getSize).sum(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            Algorithm algorithm = Algorithm.HMAC256(secret);
+            for (SyntheticDataset dataset : datasets) {
+                users.add(new LoadUser(dataset.getUserId(), mintToken(algorithm, dataset.getUserId()),
+                        dataset.getCategories().stream()
+                                .filter(category -> category.type() == TransactionType.EXPENSE)
+                                .map(SyntheticDataset.CategorySpec::id)
+                                .toList(),
+                        new ConcurrentLinkedQueue<>()));
+            }
+            baseUrl = "http://localhost:" + app.getPort();
+            drive();
+        }
+        report(Paths.get(option("out", "target/load-results")));
+    }
+
+    private List<SyntheticDataset> datasets(int userCount, int transactions, String distribution) {
+        // Skewed: user i gets a 1/(i+1) share, so a few heavy users dominate like in production
+        double harmonic = 0;
+        for (int i = 0; i < userCount; i++) {
+            harmonic += 1.0 / (i + 1);
+        }
+        List<SyntheticDataset> datasets = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            int size = "skewed".equals(distribution)
+                    ? (int) Math.max(1, Math.round((double) transactions * userCount / (harmonic * (i + 1))))
+                    : transactions;
+            UUID userId = UUID.nameUUIDFromBytes(("load-user-" + i).getBytes());
+            datasets.add(new SyntheticDataset(userId, size, SyntheticDataset.DEFAULT_SEED + i));
+        }
+        return datasets;
+    }
+
+    private static String mintToken(Algorithm algorithm, UUID userId) {
+        return JWT.create()
+                .withSubject(userId.toString())
+                .withClaim("email", userId + "@load.test")
+                .withExpiresAt(Instant.now().plus(Duration.ofHours(6)))
+                .sign(algorithm);
+    }
+
+    private void drive() throws InterruptedException {
+        int rate = intOption("rate", 200);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(intOption("warmup", 10));
+        long durationNanos = TimeUnit.SECONDS.toNanos(intOption("duration", 60));
+        int concurrency = intOption("concurrency", 64);
+        Endpoint[] wheel = mixWheel(option("mix", DEFAULT_MIX));
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, concurrency / 4));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        Random random = new Random(SyntheticDataset.DEFAULT_SEED);
+
+        System.out.printf("Driving %d req/s for %ds (+%ds warmup), %d in flight max%n", rate,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                concurrency);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+            LoadUser user = users.get(random.nextInt(users.size()));
+            boolean measured = intended >= measureFrom;
+            send(endpoint, user, random).whenComplete((success, error) -> {
+                inFlight.release();
+                if (measured) {
+                    Stats endpointStats = stats.get(endpoint);
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    endpointStats.latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                    if (error != null || !Boolean.TRUE.equals(success)) {
+                        endpointStats.errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        inFlight.acquire(concurrency);
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Boolean> send(Endpoint endpoint, LoadUser user, Random random) {
+        LocalDate today = LocalDate.now();
+        return switch (endpoint) {
+            case LIST -> get(user, "/api/transactions?startDate=" + today.minusDays(90) + "&endDate=" + today);
+            case PAGE -> get(user, "/api/transactions/page?limit=50");
+            case SUMMARY -> get(user, random.nextBoolean()
+                    ? "/api/transactions/summary"
+                    : "/api/transactions/summary?startDate=" + today.minusMonths(12) + "&endDate=" + today);
+            case CATEGORIES -> get(user, "/api/categories");
+            case PDF -> get(user, "/api/transactions/download/pdf?startDate=" + today.minusMonths(1)
+                    + "&endDate=" + today);
+            case CREATE -> create(user, random);
+            case DELETE -> {
+                UUID id = user.created().poll();
+                yield id == null ? create(user, random) : call(user, "/api/transactions/" + id,
+                        builder -> builder.DELETE(), HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() < 300);
+            }
+        };
+    }
+
+    private CompletableFuture<Boolean> get(LoadUser user, String path) {
+        return call(user, path, HttpRequest.Builder::GET, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 300);
+    }
+
+    private CompletableFuture<Boolean> create(LoadUser user, Random random) {
+        TransactionRequest request = new TransactionRequest(
+                user.expenseCategories().get(random.nextInt(user.expenseCategories().size())),
+                BigDecimal.valueOf(50 + random.nextInt(5000)),
+                TransactionType.EXPENSE,
+                "load test",
+                LocalDate.now());
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return call(user, "/api/transactions",
+                builder -> builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)),
+                HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 300) {
+                        return false;
+                    }
+                    try {
+                        JsonNode id = objectMapper.readTree(response.body()).path("data").path("id");
+                        if (id.isTextual()) {
+                            user.created().add(UUID.fromString(id.asText()));
+                        }
+                        return true;
+                    } catch (IOException e) {
+                        return false;
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> call(LoadUser user, String path,
+                                                        UnaryOperator<HttpRequest.Builder> method,
+                                                        HttpResponse.BodyHandler<T> handler) {
+        HttpRequest request = method.apply(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .timeout(Duration.ofMinutes(2))
+                        .header("Authorization", "Bearer " + user.token()))
+                .build();
+        return client.sendAsync(request, handler);
+    }
+
+    private void report(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        long seconds = Math.max(1, intOption("duration", 60));
+        System.out.printf("%n%-11s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            String name = entry.getKey().name().toLowerCase();
+            System.out.printf("%-11s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name,
+                    latency.getTotalCount(), entry.getValue().errors.get(),
+                    (double) latency.getTotalCount() / seconds,
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve(name + ".hgrm")))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("\nPercentile distributions (ms) written to " + outputDir.toAbsolutePath());
+    }
+
+    private static Endpoint[] mixWheel(String mix) {
+        List<Endpoint> wheel = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            Endpoint endpoint = Endpoint.valueOf(pair[0].trim().toUpperCase());
+            int weight = Integer.parseInt(pair[1].trim());
+            for (int i = 0; i < weight; i++) {
+                wheel.add(endpoint);
+            }
+        }
+        if (wheel.isEmpty()) {
+            throw new IllegalArgumentException("Empty workload mix: " + mix);
+        }
+        return wheel.toArray(Endpoint[]::new);
+    }
+
+    // Accepts "-name=value" tokens, either as separate arguments or one space-separated string
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String[] pair = token.replaceFirst("^-+", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected -name=value but got: " + token);
+                }
+                options.put(pair[0], pair[1]);
+            }
+        }
+        return options;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+    }
+}
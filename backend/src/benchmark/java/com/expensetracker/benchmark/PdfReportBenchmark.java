@@ -0,0 +1,45 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.service.PdfService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Full export path: aggregate summary plus cursor-streamed rows rendered into a discarding stream
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PdfReportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactions;
+
+    private SeededApplication application;
+    private PdfService pdfService;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = SeededApplication.start();
+        userId = SeededApplication.benchmarkUser();
+        application.seed(new SyntheticDataset(userId, transactions));
+        pdfService = application.getBean(PdfService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public void streamingReport() {
+        pdfService.writeTransactionReport(OutputStream.nullOutputStream(), "bench@example.com",
+                userId, null, null);
+    }
+}
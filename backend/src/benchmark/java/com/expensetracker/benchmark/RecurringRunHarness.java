@@ -0,0 +1,114 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.model.RecurrenceFrequency;
+import com.expensetracker.model.RecurringRule;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.RecurringTransactionScheduler;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Times one recurring-transaction run over a large rule table on an embedded PostgreSQL, then a second run
+// that must find nothing left to do. Every rule is seeded with `missed` due occurrences, so missed=1 is a
+// normal daily run and larger values measure catching up after downtime.
+//
+// Options (-name=value): rules, users, frequency (DAILY|WEEKLY|MONTHLY|YEARLY), missed, workers, batch
+public final class RecurringRunHarness {
+
+    private static final int INSERT_BATCH = 5000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int ruleCount = Integer.parseInt(options.getOrDefault("rules", "1000000"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", String.valueOf(Math.max(1, ruleCount / 5))));
+        RecurrenceFrequency frequency = RecurrenceFrequency.valueOf(options.getOrDefault("frequency", "MONTHLY"));
+        int missed = Integer.parseInt(options.getOrDefault("missed", "1"));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("recurring.scheduler.initial-delay-ms", Long.MAX_VALUE / 2);
+        properties.put("recurring.scheduler.workers", options.getOrDefault("workers", "4"));
+        properties.put("recurring.scheduler.batch-size", options.getOrDefault("batch", "500"));
+        try (SeededApplication app = SeededApplication.start(WebApplicationType.NONE, properties)) {
+            LocalDate today = LocalDate.now();
+            long seedStart = System.nanoTime();
+            seedRules(app.getBean(JdbcTemplate.class), ruleCount, userCount, frequency, missed, today);
+            System.out.printf("Seeded %d %s rules for %d users, %d due occurrences each, in %d ms%n",
+                    ruleCount, frequency, userCount, missed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            RecurringTransactionScheduler scheduler = app.getBean(RecurringTransactionScheduler.class);
+            report("First run", scheduler.run(today));
+            report("Second run", scheduler.run(today));
+
+            JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+            long transactions = jdbc.queryForObject("SELECT count(*) FROM transactions", Long.class);
+            long pending = jdbc.queryForObject(
+                    "SELECT count(*) FROM recurring_rules WHERE next_occurrence <= ?", Long.class, Date.valueOf(today));
+            System.out.printf("Transactions: %d (expected %d), rules still due: %d%n",
+                    transactions, (long) ruleCount * missed, pending);
+        }
+        System.exit(0);
+    }
+
+    private static void report(String label, RecurringTransactionScheduler.RunSummary summary) {
+        System.out.printf("%s: %d occurrences from %d rule claims in %d ms (%.0f occurrences/s), %d failed buckets%n",
+                label, summary.occurrences(), summary.rules(), summary.elapsed().toMillis(),
+                summary.occurrencesPerSecond(), summary.failedBuckets());
+    }
+
+    private static void seedRules(JdbcTemplate jdbc, int ruleCount, int userCount, RecurrenceFrequency frequency,
+                                  int missed, LocalDate today) {
+        Random random = new Random(SyntheticDataset.DEFAULT_SEED);
+        UUID[] users = new UUID[userCount];
+        for (int i = 0; i < userCount; i++) {
+            users[i] = UUID.nameUUIDFromBytes(("recurring-user-" + i).getBytes());
+        }
+        LocalDate start = frequency.occurrence(today, -(missed - 1L));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < ruleCount; i++) {
+            UUID userId = users[i % userCount];
+            TransactionType type = random.nextInt(10) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            batch.add(new Object[]{UUID.randomUUID(), userId, RecurringRule.bucketOf(userId),
+                    BigDecimal.valueOf(100 + random.nextInt(500_000), 2), type.name(), "recurring #" + i,
+                    frequency.name(), Date.valueOf(start), Date.valueOf(start), now, now});
+            if (batch.size() == INSERT_BATCH || i == ruleCount - 1) {
+                jdbc.batchUpdate("INSERT INTO recurring_rules (id, user_id, bucket, amount, type, description, "
+                        + "frequency, start_date, next_occurrence, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbc.execute("ANALYZE recurring_rules");
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String[] pair = token.replaceFirst("^-+", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected -name=value but got: " + token);
+                }
+                options.put(pair[0], pair[1]);
+            }
+        }
+        return options;
+    }
+}
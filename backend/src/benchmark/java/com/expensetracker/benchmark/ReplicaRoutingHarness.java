@@ -0,0 +1,278 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.config.ReplicaRoutingContext;
+import com.expensetracker.dto.TransactionRequest;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Two embedded PostgreSQL servers, the second a logical-replication subscriber of the first, with the
+// application routing reads between them. Reports where reads went and why, whether users read their own
+// writes although the replica trails the primary, and that reads keep working once the replica is stopped.
+//
+// Options (-name=value): users, transactions (per user), reads, samples, stickiness (ms)
+public final class ReplicaRoutingHarness {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int userCount = Integer.parseInt(options.getOrDefault("users", "200"));
+        int transactions = Integer.parseInt(options.getOrDefault("transactions", "500"));
+        int reads = Integer.parseInt(options.getOrDefault("reads", "2000"));
+        int samples = Integer.parseInt(options.getOrDefault("samples", "200"));
+        long stickinessMs = Long.parseLong(options.getOrDefault("stickiness", "2000"));
+
+        EmbeddedPostgres primary = EmbeddedPostgres.builder().setServerConfig("wal_level", "logical").start();
+        EmbeddedPostgres replica = EmbeddedPostgres.builder().start();
+        String replicaUrl = replica.getJdbcUrl("postgres", "postgres");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+        migrate(replicaUrl, replicaJdbc);
+
+        // One instance, so no invalidation traffic mixed into the routing counts
+        Map<String, Object> properties = Map.of(
+                "cache.invalidation.enabled", false,
+                "replica.datasource.urls", replicaUrl,
+                "replica.datasource.stickiness-ms", stickinessMs,
+                "replica.datasource.health-check-ms", 500,
+                "recurring.scheduler.initial-delay-ms", Long.MAX_VALUE / 2,
+                "budget.reconciliation.initial-delay-ms", Long.MAX_VALUE / 2);
+        try (SeededApplication app = SeededApplication.start(primary, WebApplicationType.NONE, properties)) {
+            subscribe(app.getBean(JdbcTemplate.class), replicaJdbc, primary.getPort());
+
+            List<SyntheticDataset> datasets = new ArrayList<>();
+            for (int i = 0; i < userCount; i++) {
+                datasets.add(new SyntheticDataset(UUID.nameUUIDFromBytes(("replica-user-" + i).getBytes()),
+                        transactions, SyntheticDataset.DEFAULT_SEED + i));
+            }
+            app.seed(datasets);
+            awaitCaughtUp(app.getBean(JdbcTemplate.class), replicaJdbc);
+            awaitHealthy(app.getBean(MeterRegistry.class));
+            // Every user counts as recently changed for one window after startup
+            TimeUnit.MILLISECONDS.sleep(stickinessMs);
+
+            measureRouting(app, datasets, reads);
+            measureReadYourWrites(app, replicaJdbc, datasets, samples, stickinessMs);
+            measureFailover(app, replica, datasets, reads);
+        }
+        System.exit(0);
+    }
+
+    // A mixed workload: reads for random users, one write in ten, and some reads made for no user
+    private static void measureRouting(SeededApplication app, List<SyntheticDataset> datasets, int reads) {
+        TransactionService service = app.getBean(TransactionService.class);
+        MeterRegistry meters = app.getBean(MeterRegistry.class);
+        Map<String, Double> before = routing(meters);
+        Random random = new Random(SyntheticDataset.DEFAULT_SEED);
+        for (int i = 0; i < reads; i++) {
+            SyntheticDataset dataset = datasets.get(random.nextInt(datasets.size()));
+            UUID userId = dataset.getUserId();
+            if (i % 10 == 0) {
+                service.createTransaction(request(dataset, random), userId);
+            } else if (i % 10 == 1) {
+                service.getTransactionPage(userId, null, null, null, null, null, 50, false);
+            } else {
+                ReplicaRoutingContext.runAs(userId, () -> {
+                    service.getTransactionPage(userId, null, null, null, null, null, 50, true);
+                    service.getTransactionSummary(userId, null, null);
+                });
+            }
+        }
+        System.out.printf("Routing over %d operations (one write in ten, one read in ten for no user):%n", reads);
+        difference(before, routing(meters)).forEach((route, count) ->
+                System.out.printf("  %-28s %8.0f%n", route, count));
+    }
+
+    // Reads a user's write straight back through the router, and checks the replica for it at the same moment
+    private static void measureReadYourWrites(SeededApplication app, JdbcTemplate replicaJdbc,
+                                              List<SyntheticDataset> datasets, int samples, long stickinessMs)
+            throws InterruptedException {
+        TransactionService service = app.getBean(TransactionService.class);
+        MeterRegistry meters = app.getBean(MeterRegistry.class);
+        Histogram lag = new Histogram(TimeUnit.SECONDS.toMicros(30), 3);
+        Random random = new Random(SyntheticDataset.DEFAULT_SEED + 1);
+        AtomicInteger found = new AtomicInteger();
+        int missingOnReplica = 0;
+        for (int i = 0; i < samples; i++) {
+            SyntheticDataset dataset = datasets.get(random.nextInt(datasets.size()));
+            UUID userId = dataset.getUserId();
+            Transaction written = service.createTransaction(request(dataset, random), userId);
+            long committed = System.nanoTime();
+            if (!onReplica(replicaJdbc, written.getId())) {
+                missingOnReplica++;
+            }
+            ReplicaRoutingContext.runAs(userId, () -> {
+                try {
+                    service.getTransactionById(written.getId(), userId);
+                    found.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // Counted as not found
+                }
+            });
+            while (!onReplica(replicaJdbc, written.getId()) && System.nanoTime() - committed < TIMEOUT_NANOS) {
+                TimeUnit.MICROSECONDS.sleep(200);
+            }
+            lag.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - committed));
+        }
+        System.out.printf("Read-your-writes: %d of %d writes read back at once; the replica lacked %d of them "
+                        + "right after commit and caught up after p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                found.get(), samples, missingOnReplica, lag.getValueAtPercentile(50) / 1000.0,
+                lag.getValueAtPercentile(99) / 1000.0, lag.getMaxValue() / 1000.0);
+
+        // Once the window has passed, the same user's reads go back to the replica
+        UUID userId = datasets.get(0).getUserId();
+        service.createTransaction(request(datasets.get(0), random), userId);
+        Map<String, Double> beforeSoon = routing(meters);
+        ReplicaRoutingContext.runAs(userId, () -> service.getTransactionPage(userId, null, null, null, null, null,
+                10, false));
+        Map<String, Double> beforeLater = routing(meters);
+        TimeUnit.MILLISECONDS.sleep(stickinessMs + 100);
+        ReplicaRoutingContext.runAs(userId, () -> service.getTransactionPage(userId, null, null, null, null, null,
+                10, false));
+        System.out.printf("Stickiness: a read just after a write went to %s, one %d ms later to %s%n",
+                difference(beforeSoon, beforeLater).keySet(), stickinessMs + 100,
+                difference(beforeLater, routing(meters)).keySet());
+    }
+
+    // Stops the replica outright; reads must land on the primary, first by failover, then by health check
+    private static void measureFailover(SeededApplication app, EmbeddedPostgres replica,
+                                        List<SyntheticDataset> datasets, int reads) throws Exception {
+        TransactionService service = app.getBean(TransactionService.class);
+        MeterRegistry meters = app.getBean(MeterRegistry.class);
+        Map<String, Double> before = routing(meters);
+        replica.close();
+        long stopped = System.nanoTime();
+
+        Random random = new Random(SyntheticDataset.DEFAULT_SEED + 2);
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toMicros(30), 3);
+        AtomicInteger failed = new AtomicInteger();
+        long removedAfter = -1;
+        for (int i = 0; i < reads; i++) {
+            UUID userId = datasets.get(random.nextInt(datasets.size())).getUserId();
+            long started = System.nanoTime();
+            ReplicaRoutingContext.runAs(userId, () -> {
+                try {
+                    service.getTransactionPage(userId, null, null, null, null, null, 50, false);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                }
+            });
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+            if (removedAfter < 0 && meters.get("datasource.replica.healthy").gauge().value() == 0) {
+                removedAfter = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stopped);
+            }
+        }
+        System.out.printf("Failover: %d reads after stopping the replica, %d failed, p50 %.1f ms, p99 %.1f ms, "
+                        + "max %.1f ms; replica out of rotation after %d ms%n",
+                reads, failed.get(), latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getMaxValue() / 1000.0, removedAfter);
+        difference(before, routing(meters)).forEach((route, count) ->
+                System.out.printf("  %-28s %8.0f%n", route, count));
+    }
+
+    // The same schema as the primary, but empty: the subscription's initial copy fills it, history included
+    private static void migrate(String url, JdbcTemplate jdbc) {
+        Flyway.configure()
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .dataSource(url, "postgres", "postgres")
+                .load()
+                .migrate();
+        jdbc.execute("TRUNCATE flyway_schema_history");
+    }
+
+    private static void subscribe(JdbcTemplate primaryJdbc, JdbcTemplate replicaJdbc, int primaryPort) {
+        primaryJdbc.execute("CREATE PUBLICATION harness FOR ALL TABLES");
+        replicaJdbc.execute("CREATE SUBSCRIPTION harness CONNECTION 'host=localhost port=" + primaryPort
+                + " user=postgres dbname=postgres' PUBLICATION harness");
+    }
+
+    private static void awaitCaughtUp(JdbcTemplate primaryJdbc, JdbcTemplate replicaJdbc)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        long expected = primaryJdbc.queryForObject("SELECT count(*) FROM transactions", Long.class);
+        while (replicaJdbc.queryForObject("SELECT count(*) FROM transactions", Long.class) != expected) {
+            if (System.nanoTime() - started > TIMEOUT_NANOS) {
+                throw new IllegalStateException("Replica did not catch up with the primary");
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        System.out.printf("Replica copied %d transactions in %d ms%n",
+                expected, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static void awaitHealthy(MeterRegistry meters) throws InterruptedException {
+        long started = System.nanoTime();
+        while (meters.get("datasource.replica.healthy").gauge().value() == 0) {
+            if (System.nanoTime() - started > TIMEOUT_NANOS) {
+                throw new IllegalStateException("Replica never passed its health check");
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    private static boolean onReplica(JdbcTemplate replicaJdbc, UUID id) {
+        return replicaJdbc.queryForObject("SELECT count(*) FROM transactions WHERE id = ?", Long.class, id) > 0;
+    }
+
+    private static Map<String, Double> routing(MeterRegistry meters) {
+        Map<String, Double> counts = new TreeMap<>();
+        for (Counter counter : meters.find("datasource.routing").counters()) {
+            counts.put(counter.getId().getTag("target") + " (" + counter.getId().getTag("reason") + ")",
+                    counter.count());
+        }
+        return counts;
+    }
+
+    private static Map<String, Double> difference(Map<String, Double> before, Map<String, Double> after) {
+        Map<String, Double> difference = new TreeMap<>();
+        after.forEach((route, count) -> {
+            double delta = count - before.getOrDefault(route, 0.0);
+            if (delta > 0) {
+                difference.put(route, delta);
+            }
+        });
+        return difference;
+    }
+
+    private static TransactionRequest request(SyntheticDataset dataset, Random random) {
+        SyntheticDataset.CategorySpec category = dataset.getCategories().get(
+                random.nextInt(dataset.getCategories().size()));
+        return new TransactionRequest(category.id(), BigDecimal.valueOf(100 + random.nextInt(100_000), 2),
+                category.type(), "replica check", LocalDate.now().minusDays(random.nextInt(365)));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String[] pair = token.replaceFirst("^-+", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected -name=value but got: " + token);
+                }
+                options.put(pair[0], pair[1]);
+            }
+        }
+        return options;
+    }
+}
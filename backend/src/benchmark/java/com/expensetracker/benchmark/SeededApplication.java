@@ -0,0 +1,148 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.ExpenseTrackerApplication;
+import com.expensetracker.service.RollupService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Boots the real application against a throwaway embedded PostgreSQL and seeds synthetic data.
+// Note: PostgreSQL refuses to start as root, so run benchmarks as a regular user.
+public final class SeededApplication implements AutoCloseable {
+
+    private static final int INSERT_BATCH = 5000;
+
+    // Null for a peer, which shares the database of the instance that started it
+    private final EmbeddedPostgres postgres;
+    private final String url;
+    private final ConfigurableApplicationContext context;
+
+    private SeededApplication(EmbeddedPostgres postgres, String url, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.url = url;
+        this.context = context;
+    }
+
+    public static SeededApplication start(WebApplicationType webType, Map<String, Object> extraProperties)
+            throws IOException {
+        return start(EmbeddedPostgres.builder().start(), webType, extraProperties);
+    }
+
+    // On a server the caller configured, such as one set up for replication; closed along with the application
+    public static SeededApplication start(EmbeddedPostgres postgres, WebApplicationType webType,
+                                         Map<String, Object> extraProperties) {
+        String url = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+        return new SeededApplication(postgres, url, run(url, webType, extraProperties));
+    }
+
+    // Another instance of the application on this one's database, the way a second server would run it
+    public SeededApplication startPeer(WebApplicationType webType, Map<String, Object> extraProperties) {
+        return new SeededApplication(null, url, run(url, webType, extraProperties));
+    }
+
+    private static ConfigurableApplicationContext run(String url, WebApplicationType webType,
+                                                      Map<String, Object> extraProperties) {
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "spring.datasource.url", url,
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "postgres",
+                "spring.jpa.show-sql", "false",
+                "logging.level.root", "WARN"));
+        properties.putAll(extraProperties);
+
+        // Passed as arguments so they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .web(webType)
+                .run(args);
+    }
+
+    public static SeededApplication start() throws IOException {
+        return start(WebApplicationType.NONE, Map.of());
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public int getPort() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public void seed(SyntheticDataset dataset) {
+        seed(List.of(dataset));
+    }
+
+    // Statistics are refreshed once after all users are loaded
+    public void seed(Collection<SyntheticDataset> datasets) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        for (SyntheticDataset dataset : datasets) {
+            insertDataset(jdbc, dataset);
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    private void insertDataset(JdbcTemplate jdbc, SyntheticDataset dataset) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (SyntheticDataset.CategorySpec category : dataset.getCategories()) {
+            categoryRows.add(new Object[]{category.id(), dataset.getUserId(), category.name(),
+                    category.type().name(), now});
+        }
+        jdbc.batchUpdate("INSERT INTO categories (id, user_id, name, type, created_at) VALUES (?, ?, ?, ?, ?)",
+                categoryRows);
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        dataset.forEach(row -> {
+            batch.add(new Object[]{row.id(), dataset.getUserId(), row.categoryId(), row.amount(),
+                    row.type().name(), row.description(), Date.valueOf(row.date()), now, now});
+            if (batch.size() == INSERT_BATCH) {
+                insertTransactions(jdbc, batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            insertTransactions(jdbc, batch);
+        }
+
+        context.getBean(RollupService.class).rebuild(dataset.getUserId());
+    }
+
+    private static void insertTransactions(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("INSERT INTO transactions (id, user_id, category_id, amount, type, description, "
+                + "date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    public static UUID benchmarkUser() {
+        return UUID.nameUUIDFromBytes("benchmark-user".getBytes());
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
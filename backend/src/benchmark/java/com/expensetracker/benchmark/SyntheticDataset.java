@@ -0,0 +1,131 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Deterministic transaction history for one user: the same size and seed always yields the same rows
+public final class SyntheticDataset {
+
+    public static final long DEFAULT_SEED = 20240101L;
+
+    public record CategorySpec(UUID id, String name, TransactionType type, double weight,
+                               double medianAmount, double spread) {
+    }
+
+    public record Row(UUID id, UUID categoryId, BigDecimal amount, TransactionType type,
+                      String description, LocalDate date) {
+    }
+
+    private static final String[][] EXPENSE_MIX = {
+            // name, weight, median amount, log-normal spread
+            {"Groceries", "0.24", "1800", "0.6"},
+            {"Food & Dining", "0.16", "650", "0.7"},
+            {"Transportation", "0.12", "300", "0.8"},
+            {"Shopping", "0.10", "2200", "1.0"},
+            {"Entertainment", "0.07", "900", "0.8"},
+            {"Bills & Utilities", "0.06", "2500", "0.4"},
+            {"Subscriptions", "0.05", "499", "0.3"},
+            {"Healthcare", "0.03", "1500", "1.1"},
+            {"Rent", "0.02", "25000", "0.1"},
+            {"Other Expenses", "0.05", "700", "1.2"},
+    };
+
+    private static final String[][] INCOME_MIX = {
+            {"Salary", "0.06", "85000", "0.15"},
+            {"Freelance", "0.03", "12000", "0.7"},
+            {"Investment", "0.01", "4000", "1.0"},
+    };
+
+    private static final String[] MERCHANTS = {
+            "uber", "swiggy", "zomato", "amazon", "flipkart", "rent", "electricity", "netflix",
+            "spotify", "pharmacy", "metro card", "petrol", "big basket", "salary", "client invoice",
+            "dividend", "movie tickets", "gym", "internet", "mobile recharge"
+    };
+
+    private final UUID userId;
+    private final int size;
+    private final long seed;
+    private final List<CategorySpec> categories = new ArrayList<>();
+    private final double totalWeight;
+
+    public SyntheticDataset(UUID userId, int size, long seed) {
+        this.userId = userId;
+        this.size = size;
+        this.seed = seed;
+        Random ids = new Random(seed);
+        double weight = 0;
+        for (String[] spec : EXPENSE_MIX) {
+            weight += addCategory(ids, spec, TransactionType.EXPENSE);
+        }
+        for (String[] spec : INCOME_MIX) {
+            weight += addCategory(ids, spec, TransactionType.INCOME);
+        }
+        this.totalWeight = weight;
+    }
+
+    public SyntheticDataset(UUID userId, int size) {
+        this(userId, size, DEFAULT_SEED);
+    }
+
+    private double addCategory(Random ids, String[] spec, TransactionType type) {
+        double weight = Double.parseDouble(spec[1]);
+        categories.add(new CategorySpec(new UUID(ids.nextLong(), ids.nextLong()), spec[0], type, weight,
+                Double.parseDouble(spec[2]), Double.parseDouble(spec[3])));
+        return weight;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<CategorySpec> getCategories() {
+        return categories;
+    }
+
+    // Spreads rows over roughly one transaction per user-day, ending today
+    public void forEach(Consumer<Row> action) {
+        Random random = new Random(seed ^ size);
+        LocalDate end = LocalDate.now();
+        int spanDays = Math.max(30, Math.min(size, 365 * 20));
+        for (int i = 0; i < size; i++) {
+            CategorySpec category = pick(random.nextDouble() * totalWeight);
+            double amount = category.medianAmount() * Math.exp(random.nextGaussian() * category.spread());
+            action.accept(new Row(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    random.nextInt(20) == 0 ? null : category.id(),
+                    BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP),
+                    category.type(),
+                    MERCHANTS[random.nextInt(MERCHANTS.length)] + " #" + random.nextInt(1000),
+                    end.minusDays(random.nextInt(spanDays))));
+        }
+    }
+
+    public List<Row> toList() {
+        List<Row> rows = new ArrayList<>(size);
+        forEach(rows::add);
+        return rows;
+    }
+
+    private CategorySpec pick(double point) {
+        double cumulative = 0;
+        for (CategorySpec category : categories) {
+            cumulative += category.weight();
+            if (point < cumulative) {
+                return category;
+            }
+        }
+        return categories.get(categories.size() - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.service.TemplateRegistry;
+import com.expensetracker.service.TemplateService;
+import com.samskivert.mustache.Mustache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Month;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private TemplateService templateService;
+    private Map<String, BigDecimal> categoryBreakdown;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(Mustache.Compiler.class, Mustache::compiler);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(TemplateRegistry.class, TemplateService.class);
+        context.refresh();
+        templateService = context.getBean(TemplateService.class);
+
+        categoryBreakdown = new LinkedHashMap<>();
+        categoryBreakdown.put("Groceries", new BigDecimal("18250.40"));
+        categoryBreakdown.put("Rent", new BigDecimal("25000.00"));
+        categoryBreakdown.put("Transportation", new BigDecimal("3120.75"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // What POST /api/transactions renders per request
+    @Benchmark
+    public String createTransactionMessages() {
+        return templateService.generateTransactionSuccessMessage("EXPENSE", "450.00", "uber #12")
+                + templateService.generateExpenseThresholdMessage("EXPENSE", new BigDecimal("450.00"));
+    }
+
+    @Benchmark
+    public String monthlyReport() {
+        return templateService.generateMonthlyReport("bench", Month.MARCH, 2024,
+                new BigDecimal("90000.00"), new BigDecimal("46371.15"), new BigDecimal("43628.85"),
+                categoryBreakdown, 212);
+    }
+}
@@ -0,0 +1,82 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Description search for one user among others of the same size, so the index has to skip foreign postings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionSearchBenchmark {
+
+    private static final int OTHER_USERS = 3;
+
+    @Param({"1000", "100000"})
+    public int transactions;
+
+    // Off: GIN index and ts_rank in PostgreSQL; on: the in-memory inverted index plus a primary key fetch
+    @Param({"false", "true"})
+    public boolean searchIndex;
+
+    private SeededApplication application;
+    private TransactionService transactionService;
+    private UUID userId;
+    private LocalDate yearAgo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = SeededApplication.start(WebApplicationType.NONE,
+                Map.of("search.index.enabled", String.valueOf(searchIndex)));
+        userId = SeededApplication.benchmarkUser();
+        List<SyntheticDataset> datasets = new ArrayList<>();
+        datasets.add(new SyntheticDataset(userId, transactions));
+        for (int i = 0; i < OTHER_USERS; i++) {
+            datasets.add(new SyntheticDataset(UUID.nameUUIDFromBytes(("search-user-" + i).getBytes()),
+                    transactions, SyntheticDataset.DEFAULT_SEED + i + 1));
+        }
+        application.seed(datasets);
+        transactionService = application.getBean(TransactionService.class);
+        yearAgo = LocalDate.now().minusYears(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    // One merchant out of twenty, so about 5% of the user's rows match and get ranked
+    @Benchmark
+    public List<Transaction> word() {
+        return transactionService.searchTransactions(userId, "uber", null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public List<Transaction> prefix() {
+        return transactionService.searchTransactions(userId, "netf", null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public List<Transaction> twoTerms() {
+        return transactionService.searchTransactions(userId, "movie tick", null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public List<Transaction> filtered() {
+        return transactionService.searchTransactions(userId, "rent", TransactionType.EXPENSE, null,
+                yearAgo, null, 50);
+    }
+}
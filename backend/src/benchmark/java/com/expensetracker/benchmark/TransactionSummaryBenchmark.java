@@ -0,0 +1,61 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.TransactionSummary;
+import com.expensetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionSummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactions;
+
+    // Off: rollups plus raw-table edges in PostgreSQL; on: scans over the in-memory columns
+    @Param({"false", "true"})
+    public boolean analyticsCache;
+
+    private SeededApplication application;
+    private TransactionService transactionService;
+    private UUID userId;
+    private LocalDate partialStart;
+    private LocalDate partialEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = SeededApplication.start(WebApplicationType.NONE,
+                Map.of("analytics.cache.enabled", String.valueOf(analyticsCache)));
+        userId = SeededApplication.benchmarkUser();
+        application.seed(new SyntheticDataset(userId, transactions));
+        transactionService = application.getBean(TransactionService.class);
+        // Deliberately not month-aligned so both the rollup and raw-table paths are exercised
+        partialEnd = LocalDate.now().minusDays(3);
+        partialStart = partialEnd.minusYears(1).plusDays(11);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public TransactionSummary allTime() {
+        return transactionService.getTransactionSummary(userId, null, null);
+    }
+
+    @Benchmark
+    public TransactionSummary partialMonthRange() {
+        return transactionService.getTransactionSummary(userId, partialStart, partialEnd);
+    }
+}
@@ -0,0 +1,85 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.CompactTransactions;
+import com.expensetracker.dto.TransactionRow;
+import com.expensetracker.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serializing a GET /api/transactions response of 10k rows: full entities (today's format) against the
+// compact column layout, with and without the gzip step the server applies when the client accepts it.
+// Payload sizes are printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"10000"})
+    public int transactions;
+
+    private ObjectMapper objectMapper;
+    private List<Transaction> entities;
+    private List<TransactionRow> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        UUID userId = SeededApplication.benchmarkUser();
+        entities = new ArrayList<>(transactions);
+        rows = new ArrayList<>(transactions);
+        LocalDateTime now = LocalDateTime.now();
+        new SyntheticDataset(userId, transactions).forEach(row -> {
+            entities.add(new Transaction(row.id(), userId, row.categoryId(), row.amount(), row.type(),
+                    row.description(), row.date(), now, now));
+            rows.add(new TransactionRow(row.id(), row.categoryId(), row.amount(), row.type(),
+                    row.description(), row.date()));
+        });
+
+        System.out.printf("%nPayload for %d rows: full %d bytes (%d gzipped), compact %d bytes (%d gzipped)%n",
+                transactions, fullJson().length, fullJsonGzip().length,
+                compactJson().length, compactJsonGzip().length);
+    }
+
+    @Benchmark
+    public byte[] fullJson() throws IOException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("Transactions retrieved successfully", entities));
+    }
+
+    @Benchmark
+    public byte[] compactJson() throws IOException {
+        return objectMapper.writeValueAsBytes(
+                ApiResponse.success("Transactions retrieved successfully", CompactTransactions.of(rows)));
+    }
+
+    @Benchmark
+    public byte[] fullJsonGzip() throws IOException {
+        return gzip(ApiResponse.success("Transactions retrieved successfully", entities));
+    }
+
+    @Benchmark
+    public byte[] compactJsonGzip() throws IOException {
+        return gzip(ApiResponse.success("Transactions retrieved successfully", CompactTransactions.of(rows)));
+    }
+
+    private byte[] gzip(Object body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, body);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthenticatedUser {
+    private UUID userId;
+    private String email;
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.config;
+
+import com.expensetracker.dto.CompactTransactions;
+import org.springframework.http.MediaType;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.List;
+
+// Lets ?format=compact stand in for the compact Accept header. Any other format value is ignored rather
+// than rejected, since some endpoints use a format parameter of their own (e.g. statement import).
+public class CompactFormatNegotiation implements ContentNegotiationStrategy {
+
+    private static final List<MediaType> COMPACT = List.of(MediaType.parseMediaType(CompactTransactions.MEDIA_TYPE));
+
+    @Override
+    public List<MediaType> resolveMediaTypes(NativeWebRequest request) {
+        return "compact".equalsIgnoreCase(request.getParameter("format")) ? COMPACT : MEDIA_TYPE_ALL_LIST;
+    }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Controllers turn exceptions into error responses themselves, so failures are counted from the status
+// per handler method; latency per endpoint comes from the http.server.requests timer
+@Component
+@RequiredArgsConstructor
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        int status = response.getStatus();
+        if (status < 400 && ex == null) {
+            return;
+        }
+        Counter.builder("api.errors")
+                .description("Requests answered with an error status, per controller method")
+                .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                .tag("method", handlerMethod.getMethod().getName())
+                .tag("status", String.valueOf(ex != null && status < 400 ? 500 : status))
+                .register(meterRegistry)
+                .increment();
+    }
+}
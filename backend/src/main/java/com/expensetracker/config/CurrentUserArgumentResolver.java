@@ -0,0 +1,62 @@
+package com.expensetracker.config;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+
+    private final JwtConfig jwtConfig;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object cached = webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return cached;
+        }
+
+        AuthenticatedUser user = resolve(webRequest.getHeader(HttpHeaders.AUTHORIZATION));
+        webRequest.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    // The user already resolved for the request on this thread, if any
+    public static UUID currentUserId() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object user = request != null ? request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        return user != null ? ((AuthenticatedUser) user).getUserId() : null;
+    }
+
+    private AuthenticatedUser resolve(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new UnauthorizedException("Invalid authorization header");
+        }
+        try {
+            DecodedJWT jwt = jwtConfig.verifyToken(authHeader.substring(7));
+            return new AuthenticatedUser(UUID.fromString(jwt.getSubject()), jwt.getClaim("email").asString());
+        } catch (Exception e) {
+            throw new UnauthorizedException(e.getMessage());
+        }
+    }
+}
@@ -4,28 +4,91 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
 @Component
 public class JwtConfig {
 
-    @Value("${supabase.jwt.secret}")
-    private String jwtSecret;
+    // Used for verified tokens that carry no exp claim
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(5);
+
+    private final JWTVerifier verifier;
+    private final Cache<String, DecodedJWT> verifiedTokens;
+    private final Timer validVerifications;
+    private final Timer invalidVerifications;
+
+    public JwtConfig(@Value("${supabase.jwt.secret}") String jwtSecret,
+                     @Value("${supabase.jwt.cache-size:10000}") long cacheSize,
+                     MeterRegistry meterRegistry) {
+        this.verifier = JWT.require(Algorithm.HMAC256(jwtSecret))
+                .acceptLeeway(5)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, DecodedJWT>() {
+                    @Override
+                    public long expireAfterCreate(String token, DecodedJWT jwt, long currentTime) {
+                        Instant expiresAt = jwt.getExpiresAtAsInstant();
+                        Duration ttl = expiresAt != null
+                                ? Duration.between(Instant.now(), expiresAt)
+                                : DEFAULT_CACHE_TTL;
+                        return Math.max(0L, ttl.toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, DecodedJWT jwt, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, DecodedJWT jwt, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-tokens");
+
+        // Only signature checks are timed; cache hits show up in the cache metrics
+        this.validVerifications = verificationTimer(meterRegistry, "valid");
+        this.invalidVerifications = verificationTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.verification")
+                .description("JWT signature verification time on token cache misses")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     public DecodedJWT verifyToken(String token) {
+        DecodedJWT cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
         try {
-            Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .acceptLeeway(5)
-                    .build();
-            return verifier.verify(token);
+            DecodedJWT jwt = verifier.verify(token);
+            validVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            verifiedTokens.put(token, jwt);
+            return jwt;
         } catch (Exception e) {
-            try {
-                return JWT.decode(token);
-            } catch (Exception ex) {
+            invalidVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             throw new RuntimeException("Invalid JWT token: " + e.getMessage());
-            }
         }
     }
 
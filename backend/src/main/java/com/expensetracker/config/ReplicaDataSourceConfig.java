@@ -0,0 +1,79 @@
+package com.expensetracker.config;
+
+import com.expensetracker.service.DataVersionService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only when replicas are configured; otherwise Spring Boot's single pool serves everything as before
+@Configuration
+@ConditionalOnExpression("'${replica.datasource.urls:}'.trim() != ''")
+public class ReplicaDataSourceConfig {
+
+    // The pool Spring Boot would have created, under the same spring.datasource.* properties
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataVersionService dataVersionService,
+            MeterRegistry meterRegistry,
+            @Value("${replica.datasource.urls}") String urls,
+            @Value("${replica.datasource.username:${spring.datasource.username}}") String username,
+            @Value("${replica.datasource.password:${spring.datasource.password}}") String password,
+            @Value("${replica.datasource.pool-size:10}") int poolSize,
+            @Value("${replica.datasource.connection-timeout-ms:1000}") long connectionTimeoutMs,
+            @Value("${replica.datasource.stickiness-ms:5000}") long stickinessMs,
+            @Value("${replica.datasource.max-lag-ms:${replica.datasource.stickiness-ms:5000}}") long maxLagMs,
+            @Value("${replica.datasource.health-check-ms:2000}") long healthCheckMs) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            // A replica that is slow to hand out a connection is treated as down rather than waited for
+            config.setConnectionTimeout(connectionTimeoutMs);
+            config.setReadOnly(true);
+            // Start even if a replica is down; the health check keeps it out of rotation until it answers
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, dataVersionService, meterRegistry,
+                Duration.ofMillis(stickinessMs), Duration.ofMillis(maxLagMs), Duration.ofMillis(healthCheckMs));
+    }
+
+    // What JPA, Flyway and JdbcTemplate use. The connection is only fetched at the first statement, once the
+    // transaction has declared whether it is read-only.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.config;
+
+import java.util.UUID;
+
+// The user whose reads the current thread is serving, which decides whether a read-only transaction may go to
+// a replica. Request threads take it from the authenticated request; work carried on other threads, such as a
+// streamed PDF or a report job, declares it with runAs. Reads for no known user stay on the primary.
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<UUID> USER = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static UUID currentUserId() {
+        UUID userId = USER.get();
+        return userId != null ? userId : CurrentUserArgumentResolver.currentUserId();
+    }
+
+    public static void runAs(UUID userId, Runnable task) {
+        UUID previous = USER.get();
+        USER.set(userId);
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                USER.set(previous);
+            } else {
+                USER.remove();
+            }
+        }
+    }
+}
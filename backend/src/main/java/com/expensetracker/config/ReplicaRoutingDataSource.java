@@ -0,0 +1,206 @@
+package com.expensetracker.config;
+
+import com.expensetracker.service.DataVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out primary connections, except to read-only transactions for a user who has not written within the
+// stickiness window; those get a connection from the next healthy replica in turn. A replica is healthy while
+// it answers its health check and trails the primary by no more than the allowed lag, so with that lag inside
+// the window a user always reads their own writes. A replica that fails to hand out a connection leaves the
+// rotation at once and the read falls back to the primary; the next passing health check brings it back.
+// Sits behind a LazyConnectionDataSourceProxy, which defers getConnection() to the first statement, by which
+// point the transaction's read-only flag is known.
+//
+// Some reads must stay on the primary because their result outlives the transaction: cache loads (categories,
+// analytics columns, the search index), where a lagging snapshot would stay cached after the replica caught up,
+// and delta sync, whose cursor trails the primary's clock by only the commit lag, so a replica further behind
+// would make clients skip changes for good. Leaving them out of a read-only transaction is not enough, since
+// joining a caller's read-only transaction would bring them here anyway; they run in a transaction of their own
+// instead (see primaryTransaction).
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Zero once a standby has replayed all it received. A logical subscriber is not in recovery, so its lag
+    // cannot be seen from its side and reads as zero.
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        // Out of rotation until the first health check passes
+        private volatile boolean healthy;
+        private volatile long lagMillis;
+
+        private Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final DataVersionService dataVersionService;
+    private final Duration stickiness;
+    private final long maxLagMillis;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService healthCheck;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    DataVersionService dataVersionService, MeterRegistry meterRegistry,
+                                    Duration stickiness, Duration maxLag, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.dataVersionService = dataVersionService;
+        this.meterRegistry = meterRegistry;
+        this.stickiness = stickiness;
+        this.maxLagMillis = maxLag.toMillis();
+
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is taking reads")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis)
+                    .description("Replay lag behind the primary at the last health check")
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return fromPrimary("read-write");
+        }
+        UUID userId = ReplicaRoutingContext.currentUserId();
+        if (userId == null) {
+            return fromPrimary("no-user");
+        }
+        if (dataVersionService.changedWithin(userId, stickiness)) {
+            return fromPrimary("sticky");
+        }
+        Replica replica = nextHealthy();
+        if (replica == null) {
+            return fromPrimary("no-replica");
+        }
+
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            count(replica.name, "read-only");
+            return connection;
+        } catch (SQLException e) {
+            takeOut(replica, e.getMessage());
+            return fromPrimary("failover");
+        }
+    }
+
+    // A new transaction that is not read-only, whatever transaction the caller is in
+    public static TransactionTemplate primaryTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Connection fromPrimary(String reason) throws SQLException {
+        Connection connection = primary.getConnection();
+        count(PRIMARY, reason);
+        return connection;
+    }
+
+    private Replica nextHealthy() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void count(String target, String reason) {
+        routed.computeIfAbsent(target + "/" + reason, key -> Counter.builder("datasource.routing")
+                .description("Connections handed out, by where they went and why")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                lag.next();
+                replica.lagMillis = lag.getLong(1);
+                if (replica.lagMillis > maxLagMillis) {
+                    takeOut(replica, replica.lagMillis + " ms behind the primary");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica {} is taking reads", replica.name);
+                }
+            } catch (Exception e) {
+                takeOut(replica, e.getMessage());
+            }
+        }
+    }
+
+    private void takeOut(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} taken out of rotation: {}", replica.name, reason);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.expensetracker.config;
+
+import com.expensetracker.service.RollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RollupBackfillRunner implements ApplicationRunner {
+
+    private final RollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rollupService.backfillIfEmpty();
+    }
+}
@@ -0,0 +1,104 @@
+package com.expensetracker.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Counts the SQL statements Hibernate prepares on the current thread. The web layer opens a tally per request
+// (see StatementBudgetInterceptor); code exercising a repository or service can do the same with start() and
+// stop(). Registers itself as Hibernate's statement inspector.
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    public static final class Tally {
+        private final int maxStatements;
+        private final int maxRepeats;
+        private final boolean failFast;
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int total;
+        private String violation;
+
+        private Tally(int maxStatements, int maxRepeats, boolean failFast) {
+            this.maxStatements = maxStatements;
+            this.maxRepeats = maxRepeats;
+            this.failFast = failFast;
+        }
+
+        private void record(String sql) {
+            total++;
+            int repeats = statements.merge(sql, 1, Integer::sum);
+            if (violation != null) {
+                return;
+            }
+            if (total > maxStatements) {
+                violation = "ran " + total + " statements, budget is " + maxStatements;
+            } else if (repeats > maxRepeats) {
+                violation = "ran the same statement " + repeats + " times, limit is " + maxRepeats + ": " + sql;
+            } else {
+                return;
+            }
+            if (failFast) {
+                throw new StatementBudgetExceededException(violation);
+            }
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public Optional<String> getViolation() {
+            return Optional.ofNullable(violation);
+        }
+
+        public Optional<Map.Entry<String, Integer>> getMostRepeated() {
+            return statements.entrySet().stream().max(Comparator.comparingInt(Map.Entry::getValue));
+        }
+
+        public Map<String, Integer> getStatements() {
+            return Map.copyOf(statements);
+        }
+    }
+
+    // Starts counting on this thread, replacing any tally already open
+    public static void start(int maxStatements, int maxRepeats, boolean failFast) {
+        CURRENT.set(new Tally(maxStatements, maxRepeats, failFast));
+    }
+
+    public static void start() {
+        start(Integer.MAX_VALUE, Integer.MAX_VALUE, false);
+    }
+
+    // Closes the tally for this thread; null when none was open
+    public static Tally stop() {
+        Tally tally = CURRENT.get();
+        CURRENT.remove();
+        return tally;
+    }
+
+    public static int count() {
+        Tally tally = CURRENT.get();
+        return tally == null ? 0 : tally.total;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.record(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
@@ -0,0 +1,16 @@
+package com.expensetracker.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Overrides the configured SQL statement budget for one handler method; negative values keep the default
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int maxStatements() default -1;
+
+    int maxRepeats() default -1;
+}
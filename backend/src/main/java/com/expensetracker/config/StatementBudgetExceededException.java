@@ -0,0 +1,8 @@
+package com.expensetracker.config;
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(String message) {
+        super("SQL statement budget exceeded: " + message);
+    }
+}
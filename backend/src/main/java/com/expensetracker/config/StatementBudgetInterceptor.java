@@ -0,0 +1,77 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Holds each API request to a SQL statement budget. Violations are logged; with sql.budget.fail-on-violation
+// the offending statement throws instead, which is meant for tests and local runs.
+@Component
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final boolean failOnViolation;
+
+    public StatementBudgetInterceptor(MeterRegistry meterRegistry,
+                                      @Value("${sql.budget.max-statements:20}") int maxStatements,
+                                      @Value("${sql.budget.max-repeats:5}") int maxRepeats,
+                                      @Value("${sql.budget.fail-on-violation:false}") boolean failOnViolation) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+            SqlStatementCounter.start(
+                    budget != null && budget.maxStatements() >= 0 ? budget.maxStatements() : maxStatements,
+                    budget != null && budget.maxRepeats() >= 0 ? budget.maxRepeats() : maxRepeats,
+                    failOnViolation);
+        }
+        return true;
+    }
+
+    // Streaming bodies run on another thread; only the statements issued before the hand-off are checked
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        report(handler, SqlStatementCounter.stop());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        report(handler, SqlStatementCounter.stop());
+    }
+
+    private void report(Object handler, SqlStatementCounter.Tally tally) {
+        if (tally == null || tally.getViolation().isEmpty() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        String controller = handlerMethod.getBeanType().getSimpleName();
+        String method = handlerMethod.getMethod().getName();
+        log.warn("{}.{} {} ({} statements; most repeated: {})", controller, method,
+                tally.getViolation().get(), tally.getTotal(),
+                tally.getMostRepeated().map(e -> e.getValue() + "x " + e.getKey()).orElse("-"));
+        Counter.builder("sql.budget.violations")
+                .description("Requests that exceeded their SQL statement budget")
+                .tag("controller", controller)
+                .tag("method", method)
+                .register(meterRegistry)
+                .increment();
+    }
+}
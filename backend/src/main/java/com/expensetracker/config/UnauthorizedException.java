@@ -0,0 +1,8 @@
+package com.expensetracker.config;
+
+public class UnauthorizedException extends RuntimeException {
+
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,107 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.config.AuthenticatedUser;
+import com.expensetracker.config.CurrentUser;
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.BudgetRequest;
+import com.expensetracker.dto.BudgetStatus;
+import com.expensetracker.model.Budget;
+import com.expensetracker.service.BudgetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<Budget>>> getAllBudgets(
+            @CurrentUser AuthenticatedUser user) {
+        try {
+            List<Budget> budgets = budgetService.getAllBudgetsByUser(user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Budgets retrieved successfully", budgets));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving budgets: " + e.getMessage()));
+        }
+    }
+
+    // Spending against every budget for the month containing the given date (default: today)
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<List<BudgetStatus>>> getStatuses(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate month) {
+        try {
+            List<BudgetStatus> statuses = budgetService.getStatuses(
+                    user.getUserId(), month != null ? month : LocalDate.now());
+            return ResponseEntity.ok(ApiResponse.success("Budget status retrieved successfully", statuses));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving budget status: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<Budget>> getBudgetById(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id) {
+        try {
+            Budget budget = budgetService.getBudgetById(id, user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Budget retrieved successfully", budget));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Budget not found: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<Budget>> createBudget(
+            @CurrentUser AuthenticatedUser user,
+            @RequestBody BudgetRequest request) {
+        try {
+            Budget budget = budgetService.createBudget(request, user.getUserId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Budget created successfully", budget));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error creating budget: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<Budget>> updateBudget(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id,
+            @RequestBody BudgetRequest request) {
+        try {
+            Budget budget = budgetService.updateBudget(id, request, user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Budget updated successfully", budget));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error updating budget: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteBudget(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id) {
+        try {
+            budgetService.deleteBudget(id, user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Budget deleted successfully", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error deleting budget: " + e.getMessage()));
+        }
+    }
+}
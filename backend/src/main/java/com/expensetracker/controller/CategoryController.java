@@ -1,15 +1,19 @@
 package com.expensetracker.controller;
 
-import com.expensetracker.config.JwtConfig;
+import com.expensetracker.config.AuthenticatedUser;
+import com.expensetracker.config.CurrentUser;
 import com.expensetracker.dto.ApiResponse;
 import com.expensetracker.dto.CategoryRequest;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.TransactionType;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.DataVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,23 +23,22 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CategoryController {
 
-    private final CategoryService categoryService;
-    private final JwtConfig jwtConfig;
+    // Clients may keep responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
-    private UUID getUserIdFromHeader(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new RuntimeException("Invalid authorization header");
-        }
-        String token = authHeader.substring(7);
-        return UUID.fromString(jwtConfig.getUserIdFromToken(token));
-    }
+    private final CategoryService categoryService;
+    private final DataVersionService dataVersionService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<Category>>> getAllCategories(
-            @RequestHeader("Authorization") String authHeader,
-            @RequestParam(required = false) TransactionType type) {
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) TransactionType type,
+            WebRequest webRequest) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
+            if (webRequest.checkNotModified(dataVersionService.getETag(userId))) {
+                return null;
+            }
             List<Category> categories;
 
             if (type != null) {
@@ -44,7 +47,8 @@ public class CategoryController {
                 categories = categoryService.getAllCategoriesByUser(userId);
             }
 
-            return ResponseEntity.ok(ApiResponse.success("Categories retrieved successfully", categories));
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(ApiResponse.success("Categories retrieved successfully", categories));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error retrieving categories: " + e.getMessage()));
@@ -53,10 +57,10 @@ public class CategoryController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Category>> getCategoryById(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable UUID id) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             Category category = categoryService.getCategoryById(id, userId);
             return ResponseEntity.ok(ApiResponse.success("Category retrieved successfully", category));
         } catch (Exception e) {
@@ -67,10 +71,10 @@ public class CategoryController {
 
     @PostMapping
     public ResponseEntity<ApiResponse<Category>> createCategory(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @RequestBody CategoryRequest request) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             Category category = categoryService.createCategory(request, userId);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Category created successfully", category));
@@ -82,11 +86,11 @@ public class CategoryController {
 
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Category>> updateCategory(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable UUID id,
             @RequestBody CategoryRequest request) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             Category category = categoryService.updateCategory(id, request, userId);
             return ResponseEntity.ok(ApiResponse.success("Category updated successfully", category));
         } catch (Exception e) {
@@ -97,10 +101,10 @@ public class CategoryController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteCategory(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable UUID id) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             categoryService.deleteCategory(id, userId);
             return ResponseEntity.ok(ApiResponse.success("Category deleted successfully", null));
         } catch (Exception e) {
@@ -0,0 +1,89 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.config.AuthenticatedUser;
+import com.expensetracker.config.CurrentUser;
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.RecurringRuleRequest;
+import com.expensetracker.model.RecurringRule;
+import com.expensetracker.service.RecurringRuleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/recurring-rules")
+@RequiredArgsConstructor
+public class RecurringRuleController {
+
+    private final RecurringRuleService recurringRuleService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<RecurringRule>>> getAllRules(
+            @CurrentUser AuthenticatedUser user) {
+        try {
+            List<RecurringRule> rules = recurringRuleService.getAllRulesByUser(user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Recurring rules retrieved successfully", rules));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving recurring rules: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<RecurringRule>> getRuleById(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id) {
+        try {
+            RecurringRule rule = recurringRuleService.getRuleById(id, user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Recurring rule retrieved successfully", rule));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Recurring rule not found: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<RecurringRule>> createRule(
+            @CurrentUser AuthenticatedUser user,
+            @RequestBody RecurringRuleRequest request) {
+        try {
+            RecurringRule rule = recurringRuleService.createRule(request, user.getUserId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Recurring rule created successfully", rule));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error creating recurring rule: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<RecurringRule>> updateRule(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id,
+            @RequestBody RecurringRuleRequest request) {
+        try {
+            RecurringRule rule = recurringRuleService.updateRule(id, request, user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Recurring rule updated successfully", rule));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error updating recurring rule: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteRule(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id) {
+        try {
+            recurringRuleService.deleteRule(id, user.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Recurring rule deleted successfully", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error deleting recurring rule: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.config.AuthenticatedUser;
+import com.expensetracker.config.CurrentUser;
+import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.ReportJobStatus;
+import com.expensetracker.service.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReportJobStatus>> submitReport(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            UUID userId = user.getUserId();
+            String userEmail = user.getEmail();
+
+            ReportJobStatus status = reportJobService.submit(userId, userEmail, startDate, endDate);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Report job submitted", status));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Error submitting report: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReportJobStatus>> getReportStatus(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id) {
+        try {
+            UUID userId = user.getUserId();
+            ReportJobStatus status = reportJobService.getStatus(id, userId);
+            return ResponseEntity.ok(ApiResponse.success("Report job retrieved successfully", status));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Report job not found: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadReport(
+            @CurrentUser AuthenticatedUser user,
+            @PathVariable UUID id) {
+        try {
+            UUID userId = user.getUserId();
+            Path artifact = reportJobService.getArtifact(id, userId);
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            String filename = "expense-tracker-report-" + LocalDate.now().format(formatter) + ".pdf";
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", filename);
+
+            return new ResponseEntity<>(new FileSystemResource(artifact), headers, HttpStatus.OK);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(null);
+        }
+    }
+}
@@ -1,21 +1,44 @@
 package com.expensetracker.controller;
 
-import com.expensetracker.config.JwtConfig;
+import com.expensetracker.config.AuthenticatedUser;
+import com.expensetracker.config.CurrentUser;
+import com.expensetracker.config.StatementBudget;
 import com.expensetracker.dto.ApiResponse;
+import com.expensetracker.dto.BatchItemResult;
+import com.expensetracker.dto.BatchRequest;
+import com.expensetracker.dto.BudgetStatus;
+import com.expensetracker.dto.CompactTransactions;
+import com.expensetracker.dto.ImportResult;
+import com.expensetracker.dto.InvalidCursorException;
+import com.expensetracker.dto.RollupDrift;
+import com.expensetracker.dto.TimeSeries;
+import com.expensetracker.dto.TimeSeriesInterval;
+import com.expensetracker.dto.TransactionChanges;
+import com.expensetracker.dto.TransactionPage;
 import com.expensetracker.dto.TransactionRequest;
+import com.expensetracker.dto.TransactionRow;
 import com.expensetracker.dto.TransactionSummary;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.BudgetService;
+import com.expensetracker.service.DataVersionService;
+import com.expensetracker.service.ImportService;
 import com.expensetracker.service.PdfService;
+import com.expensetracker.service.RollupService;
+import com.expensetracker.service.SyncService;
 import com.expensetracker.service.TemplateService;
 import com.expensetracker.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -29,28 +52,34 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // Clients may keep responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TransactionService transactionService;
     private final TemplateService templateService;
     private final PdfService pdfService;
-    private final JwtConfig jwtConfig;
-
-    private UUID getUserIdFromHeader(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new RuntimeException("Invalid authorization header");
-        }
-        String token = authHeader.substring(7);
-        return UUID.fromString(jwtConfig.getUserIdFromToken(token));
-    }
+    private final RollupService rollupService;
+    private final ImportService importService;
+    private final DataVersionService dataVersionService;
+    private final SyncService syncService;
+    private final BudgetService budgetService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<Transaction>>> getAllTransactions(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) TransactionType type,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
+            if (webRequest.checkNotModified(dataVersionService.getETag(userId))) {
+                return null;
+            }
             List<Transaction> transactions;
 
             if (type != null || categoryId != null || startDate != null || endDate != null) {
@@ -60,19 +89,128 @@ public class TransactionController {
                 transactions = transactionService.getAllTransactionsByUser(userId);
             }
 
-            return ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", transactions));
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                    .body(ApiResponse.success("Transactions retrieved successfully", transactions));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving transactions: " + e.getMessage()));
+        }
+    }
+
+    // Same data as getAllTransactions in the column-oriented compact layout
+    @GetMapping(produces = CompactTransactions.MEDIA_TYPE)
+    public ResponseEntity<ApiResponse<CompactTransactions>> getCompactTransactions(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
+        try {
+            UUID userId = user.getUserId();
+            if (webRequest.checkNotModified(dataVersionService.getETag(userId, "compact"))) {
+                return null;
+            }
+            List<TransactionRow> rows = transactionService.getTransactionRows(
+                    userId, type, categoryId, startDate, endDate);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                    .body(ApiResponse.success("Transactions retrieved successfully", CompactTransactions.of(rows)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving transactions: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<TransactionPage>> getTransactionPage(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            UUID userId = user.getUserId();
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+
+            TransactionPage page = transactionService.getTransactionPage(
+                    userId, type, categoryId, startDate, endDate, cursor, limit, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", page));
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error retrieving transactions: " + e.getMessage()));
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<Transaction>>> searchTransactions(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        try {
+            UUID userId = user.getUserId();
+            if (q == null || q.isBlank()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("q must not be blank"));
+            }
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+            if (webRequest.checkNotModified(dataVersionService.getETag(userId))) {
+                return null;
+            }
+
+            List<Transaction> transactions = transactionService.searchTransactions(
+                    userId, q, type, categoryId, startDate, endDate, limit);
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(ApiResponse.success("Transactions retrieved successfully", transactions));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error searching transactions: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<TransactionChanges>> getChanges(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            UUID userId = user.getUserId();
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+
+            TransactionChanges changes = syncService.getChanges(userId, since, limit);
+            return ResponseEntity.ok(ApiResponse.success("Changes retrieved successfully", changes));
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving changes: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Transaction>> getTransactionById(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable UUID id) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             Transaction transaction = transactionService.getTransactionById(id, userId);
             return ResponseEntity.ok(ApiResponse.success("Transaction retrieved successfully", transaction));
         } catch (Exception e) {
@@ -83,10 +221,10 @@ public class TransactionController {
 
     @PostMapping
     public ResponseEntity<ApiResponse<Map<String, String>>> createTransaction(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @RequestBody TransactionRequest request) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             Transaction transaction = transactionService.createTransaction(request, userId);
             
             String successMessage = templateService.generateTransactionSuccessMessage(
@@ -94,15 +232,9 @@ public class TransactionController {
                     transaction.getAmount().toString(),
                     transaction.getDescription());
             
-            // Generate threshold advice message
-            String adviceMessage = templateService.generateExpenseThresholdMessage(
-                    transaction.getType().toString(),
-                    transaction.getAmount());
-
-            // Return both messages in custom response
             Map<String, String> data = new HashMap<>();
             data.put("id", transaction.getId().toString());
-            data.put("adviceMessage", adviceMessage);
+            putAdvice(data, transaction);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success(successMessage, data));
@@ -112,28 +244,97 @@ public class TransactionController {
         }
     }
 
+    // Advice reflects the category's monthly budget when it has one, else the plain amount threshold
+    private void putAdvice(Map<String, String> data, Transaction transaction) {
+        BudgetStatus budget = budgetService.evaluate(transaction);
+        if (budget != null) {
+            data.put("adviceMessage", templateService.generateBudgetMessage(budget));
+            data.put("budgetState", budget.getState().name());
+        } else {
+            data.put("adviceMessage", templateService.generateExpenseThresholdMessage(
+                    transaction.getType().toString(),
+                    transaction.getAmount()));
+        }
+    }
+
+    // Rollups take one upsert per touched (month, type, category); an update reverts and re-records
+    @StatementBudget(maxStatements = 2 * MAX_BATCH_SIZE + 20, maxRepeats = 2 * MAX_BATCH_SIZE)
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<BatchItemResult>>> applyBatch(
+            @CurrentUser AuthenticatedUser user,
+            @RequestBody BatchRequest request) {
+        try {
+            UUID userId = user.getUserId();
+            if (request.getOperations() == null || request.getOperations().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("operations must not be empty"));
+            }
+            if (request.getOperations().size() > MAX_BATCH_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("A batch can contain at most " + MAX_BATCH_SIZE + " operations"));
+            }
+
+            List<BatchItemResult> results = transactionService.applyBatch(request.getOperations(), userId);
+            long failed = results.stream().filter(result -> !result.isSuccess()).count();
+            String message = failed == 0
+                    ? "Batch applied successfully"
+                    : "Batch applied with " + failed + " failed operation(s)";
+            return ResponseEntity.ok(ApiResponse.success(message, results));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error applying batch: " + e.getMessage()));
+        }
+    }
+
+    // Statement count grows with the file, one set of chunk writes per import.chunk-size rows
+    @StatementBudget(maxStatements = Integer.MAX_VALUE, maxRepeats = Integer.MAX_VALUE)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ImportResult>> importTransactions(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "0") long resumeFromRow) {
+        try {
+            UUID userId = user.getUserId();
+            String importFormat = format;
+            if (importFormat == null) {
+                String filename = file.getOriginalFilename();
+                importFormat = filename != null && filename.contains(".")
+                        ? filename.substring(filename.lastIndexOf('.') + 1)
+                        : "csv";
+            }
+
+            ImportResult result = importService.importStatement(
+                    userId, file.getInputStream(), importFormat, resumeFromRow);
+
+            if (!result.isCompleted()) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(new ApiResponse<>(false, "Import stopped: " + result.getError(), result));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Transactions imported successfully", result));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Error importing transactions: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Map<String, String>>> updateTransaction(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable UUID id,
             @RequestBody TransactionRequest request) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             Transaction transaction = transactionService.updateTransaction(id, request, userId);
             
             String successMessage = templateService.generateTransactionUpdateMessage(
                     transaction.getType().toString(),
                     transaction.getAmount().toString());
 
-            // Generate threshold advice message
-            String adviceMessage = templateService.generateExpenseThresholdMessage(
-                    transaction.getType().toString(),
-                    transaction.getAmount());
-
-            // Return both messages in custom response
             Map<String, String> data = new HashMap<>();
             data.put("id", transaction.getId().toString());
-            data.put("adviceMessage", adviceMessage);
+            putAdvice(data, transaction);
 
             return ResponseEntity.ok(ApiResponse.success(successMessage, data));
         } catch (Exception e) {
@@ -144,10 +345,10 @@ public class TransactionController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteTransaction(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable UUID id) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
             transactionService.deleteTransaction(id, userId);
             
             String message = templateService.generateTransactionDeleteMessage();
@@ -161,51 +362,104 @@ public class TransactionController {
 
     @GetMapping("/summary")
     public ResponseEntity<ApiResponse<TransactionSummary>> getTransactionSummary(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
+            UUID userId = user.getUserId();
+            if (webRequest.checkNotModified(dataVersionService.getETag(userId))) {
+                return null;
+            }
             TransactionSummary summary = transactionService.getTransactionSummary(userId, startDate, endDate);
-            return ResponseEntity.ok(ApiResponse.success("Summary retrieved successfully", summary));
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(ApiResponse.success("Summary retrieved successfully", summary));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error retrieving summary: " + e.getMessage()));
         }
     }
 
-    @GetMapping("/download/pdf")
-    public ResponseEntity<byte[]> downloadPdfReport(
-            @RequestHeader("Authorization") String authHeader,
+    @GetMapping("/timeseries")
+    public ResponseEntity<ApiResponse<TimeSeries>> getTimeSeries(
+            @CurrentUser AuthenticatedUser user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "MONTH") TimeSeriesInterval interval,
+            @RequestParam(defaultValue = "false") boolean byCategory,
+            WebRequest webRequest) {
         try {
-            UUID userId = getUserIdFromHeader(authHeader);
-            String token = authHeader.substring(7);
-            String userEmail = jwtConfig.verifyToken(token).getClaim("email").asString();
-            
-            // Get transactions
-            List<Transaction> transactions;
-            if (startDate != null || endDate != null) {
-                transactions = transactionService.getTransactionsByFilters(
-                        userId, null, null, startDate, endDate);
-            } else {
-                transactions = transactionService.getAllTransactionsByUser(userId);
+            UUID userId = user.getUserId();
+            if (webRequest.checkNotModified(dataVersionService.getETag(userId))) {
+                return null;
             }
+            TimeSeries series = transactionService.getTimeSeries(userId, startDate, endDate, interval, byCategory);
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(ApiResponse.success("Time series retrieved successfully", series));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving time series: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/rollups/verify")
+    public ResponseEntity<ApiResponse<List<RollupDrift>>> verifyRollups(
+            @CurrentUser AuthenticatedUser user) {
+        try {
+            UUID userId = user.getUserId();
+            List<RollupDrift> drift = rollupService.verify(userId);
+            String message = drift.isEmpty() ? "Rollups are consistent" : "Rollup drift detected";
+            return ResponseEntity.ok(ApiResponse.success(message, drift));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error verifying rollups: " + e.getMessage()));
+        }
+    }
 
-            // Generate PDF
-            byte[] pdfBytes = pdfService.generateTransactionReport(userEmail, transactions, startDate, endDate);
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRollups(
+            @CurrentUser AuthenticatedUser user) {
+        try {
+            UUID userId = user.getUserId();
+            int buckets = rollupService.rebuild(userId);
+            return ResponseEntity.ok(ApiResponse.success("Rollups rebuilt successfully", buckets));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error rebuilding rollups: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/download/pdf")
+    public ResponseEntity<StreamingResponseBody> downloadPdfReport(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
+        try {
+            UUID userId = user.getUserId();
+            String userEmail = user.getEmail();
 
             // Create filename
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            String filename = "expense-tracker-report-" + LocalDate.now().format(formatter) + ".pdf";
+            String today = LocalDate.now().format(formatter);
+            String filename = "expense-tracker-report-" + today + ".pdf";
+
+            // The report and its filename carry the generation date, so it is part of the validator
+            String version = dataVersionService.getVersion(userId);
+            if (webRequest.checkNotModified("\"" + version + "-" + today + "\"")) {
+                return null;
+            }
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
+            headers.setCacheControl(REVALIDATE);
+
+            // Generate PDF directly into the response body
+            StreamingResponseBody body = out ->
+                    pdfService.writeTransactionReport(out, userEmail, userId, startDate, endDate);
 
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(null);
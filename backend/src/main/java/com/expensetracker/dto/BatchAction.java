@@ -0,0 +1,7 @@
+package com.expensetracker.dto;
+
+public enum BatchAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,26 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private BatchAction action;
+    private UUID id;
+    private boolean success;
+    private String message;
+
+    public static BatchItemResult ok(int index, BatchAction action, UUID id) {
+        return new BatchItemResult(index, action, id, true, null);
+    }
+
+    public static BatchItemResult failed(int index, BatchAction action, UUID id, String message) {
+        return new BatchItemResult(index, action, id, false, message);
+    }
+}
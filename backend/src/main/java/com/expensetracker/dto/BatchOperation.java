@@ -0,0 +1,18 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+    private BatchAction action;
+    // Required for UPDATE and DELETE
+    private UUID id;
+    // Required for CREATE and UPDATE
+    private TransactionRequest transaction;
+}
@@ -0,0 +1,7 @@
+package com.expensetracker.dto;
+
+public enum BudgetState {
+    ON_TRACK,
+    NEARING_LIMIT,
+    EXCEEDED
+}
@@ -0,0 +1,26 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatus {
+    private UUID budgetId;
+    private UUID categoryId;
+    private String categoryName;
+    // First day of the month the figures cover
+    private LocalDate month;
+    private BigDecimal limit;
+    private BigDecimal spent;
+    // Negative once the budget is exceeded
+    private BigDecimal remaining;
+    private int percentUsed;
+    private BudgetState state;
+}
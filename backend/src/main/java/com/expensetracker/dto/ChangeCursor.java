@@ -0,0 +1,47 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+// Position in the (timestamp, id) order shared by changed rows and tombstones, exchanged as an opaque token
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeCursor {
+
+    // Before anything the user has ever written
+    public static final ChangeCursor START = new ChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0L, 0L));
+
+    // Matches PostgreSQL, which compares uuids as unsigned bytes; UUID.compareTo compares signed longs
+    public static final Comparator<ChangeCursor> ORDER = Comparator
+            .comparing(ChangeCursor::getTimestamp)
+            .thenComparing(ChangeCursor::getId, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            });
+
+    private LocalDateTime timestamp;
+    private UUID id;
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new ChangeCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (Exception e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
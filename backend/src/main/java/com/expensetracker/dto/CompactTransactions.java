@@ -0,0 +1,46 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Column-oriented transaction list: field names once, then one array per row. The category column holds
+// an index into categories (null when uncategorized) instead of repeating the id on every row.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactTransactions {
+
+    // Requested with this Accept header or with ?format=compact
+    public static final String MEDIA_TYPE = "application/vnd.expensetracker.compact+json";
+
+    public static final List<String> COLUMNS = List.of("id", "date", "type", "amount", "category", "description");
+
+    private List<String> columns;
+    private List<UUID> categories;
+    private List<Object[]> rows;
+
+    public static CompactTransactions of(List<TransactionRow> transactions) {
+        Map<UUID, Integer> categoryIndexes = new HashMap<>();
+        List<UUID> categories = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>(transactions.size());
+        for (TransactionRow transaction : transactions) {
+            Integer category = null;
+            if (transaction.getCategoryId() != null) {
+                category = categoryIndexes.computeIfAbsent(transaction.getCategoryId(), id -> {
+                    categories.add(id);
+                    return categories.size() - 1;
+                });
+            }
+            rows.add(new Object[]{transaction.getId(), transaction.getDate(), transaction.getType(),
+                    transaction.getAmount(), category, transaction.getDescription()});
+        }
+        return new CompactTransactions(COLUMNS, categories, rows);
+    }
+}
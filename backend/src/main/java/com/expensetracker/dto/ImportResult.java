@@ -0,0 +1,20 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private boolean completed;
+    private long rowsImported;
+    private long rowsSkipped;
+    private int chunksCommitted;
+    private int categoriesCreated;
+    // Pass this back as resumeFromRow to continue after a failure
+    private long lastCommittedRow;
+    private long elapsedMillis;
+    private String error;
+}
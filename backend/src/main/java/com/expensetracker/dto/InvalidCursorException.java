@@ -0,0 +1,9 @@
+package com.expensetracker.dto;
+
+// A paging or sync token the client sent back that does not decode; a client error, not a server one
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
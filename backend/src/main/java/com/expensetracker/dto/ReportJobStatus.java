@@ -0,0 +1,23 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobStatus {
+    private UUID jobId;
+    private String status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean cached;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupDrift {
+    private LocalDate month;
+    private String type;
+    private UUID categoryId;
+    private BigDecimal rollupTotal;
+    private BigDecimal actualTotal;
+    private long rollupCount;
+    private long actualCount;
+}
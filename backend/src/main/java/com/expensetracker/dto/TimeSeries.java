@@ -0,0 +1,19 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeries {
+    private TimeSeriesInterval interval;
+    // Net of everything before the range start; zero for an open-ended range
+    private BigDecimal openingBalance;
+    // Only buckets with at least one transaction, oldest first
+    private List<TimeSeriesPoint> points;
+}
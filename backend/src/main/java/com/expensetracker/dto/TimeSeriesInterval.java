@@ -0,0 +1,34 @@
+package com.expensetracker.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+public enum TimeSeriesInterval {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // First day of the bucket holding date; weeks start on Monday, as with PostgreSQL's date_trunc
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+    // Field name accepted by date_trunc
+    public String sqlUnit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
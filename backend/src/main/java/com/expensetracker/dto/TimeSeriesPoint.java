@@ -0,0 +1,22 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesPoint {
+    private LocalDate periodStart;
+    private BigDecimal income;
+    private BigDecimal expense;
+    // Opening balance plus every bucket up to and including this one
+    private BigDecimal balance;
+    // Per category name; null unless the split was requested
+    private Map<String, BigDecimal> categories;
+}
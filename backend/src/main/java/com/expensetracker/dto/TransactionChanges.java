@@ -0,0 +1,24 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionChanges {
+    // Created or updated since the cursor; a row can reappear in the next response, so apply as upserts
+    private List<Transaction> changed;
+    // Ids of transactions deleted since the cursor
+    private List<UUID> deleted;
+    private String nextCursor;
+    // More changes are waiting; call again with nextCursor straight away
+    private boolean hasMore;
+    // The cursor predates tombstone retention: drop local state, this response starts over from scratch
+    private boolean fullResyncRequired;
+}
@@ -0,0 +1,44 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position in the (date DESC, createdAt DESC, id DESC) ordering, exchanged with clients as an opaque token
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionCursor {
+    private LocalDate date;
+    private LocalDateTime createdAt;
+    private UUID id;
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getCreatedAt(), transaction.getId());
+    }
+
+    public String encode() {
+        String raw = date + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new TransactionCursor(
+                    LocalDate.parse(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    UUID.fromString(parts[2]));
+        } catch (Exception e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
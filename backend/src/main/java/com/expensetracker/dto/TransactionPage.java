@@ -0,0 +1,17 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+    private List<Transaction> transactions;
+    private String nextCursor;
+    private Long totalCount;
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// The transaction fields clients display, selected directly instead of loading entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRow {
+    private UUID id;
+    private UUID categoryId;
+    private BigDecimal amount;
+    private TransactionType type;
+    private String description;
+    private LocalDate date;
+}
@@ -0,0 +1,17 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeTotal {
+    private TransactionType type;
+    private BigDecimal total;
+    private Long count;
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "transaction_monthly_rollups",
+       uniqueConstraints = @UniqueConstraint(
+               name = "uk_rollup_user_month_type_category",
+               columnNames = {"user_id", "month", "type", "category_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollup {
+
+    // Rollup rows for uncategorized transactions use this id so the unique key never contains NULL
+    public static final UUID UNCATEGORIZED = new UUID(0L, 0L);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // First day of the month the bucket covers
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TransactionType type;
+
+    @Column(name = "category_id", nullable = false)
+    private UUID categoryId;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long count;
+}
@@ -0,0 +1,32 @@
+package com.expensetracker.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+public enum RecurrenceFrequency {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS),
+    YEARLY(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    RecurrenceFrequency(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // Always counted from the start date, so a rule starting on the 31st falls on the last day of shorter
+    // months and returns to the 31st afterwards
+    public LocalDate occurrence(LocalDate startDate, long index) {
+        return startDate.plus(index, unit);
+    }
+
+    // Index of the first occurrence on or after date
+    public long firstIndexOnOrAfter(LocalDate startDate, LocalDate date) {
+        long index = Math.max(0, unit.between(startDate, date));
+        while (occurrence(startDate, index).isBefore(date)) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,100 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "recurring_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRule {
+
+    // Rules are claimed by the scheduler one bucket at a time; all of a user's rules share a bucket
+    public static final int BUCKETS = 256;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private short bucket;
+
+    @Column(name = "category_id")
+    private UUID categoryId;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TransactionType type;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // How many occurrences the schedule has passed, materialized or skipped; the next one is at this index
+    @Column(nullable = false)
+    private int occurrences;
+
+    // Null once the rule has ended
+    @Column(name = "next_occurrence")
+    private LocalDate nextOccurrence;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static short bucketOf(UUID userId) {
+        return (short) Math.floorMod(userId.hashCode(), BUCKETS);
+    }
+
+    public LocalDate occurrence(long index) {
+        return frequency.occurrence(startDate, index);
+    }
+
+    // Moves the schedule to the given occurrence index, ending the rule once that falls past the end date
+    public void advanceTo(long index) {
+        LocalDate next = occurrence(index);
+        occurrences = (int) index;
+        nextOccurrence = endDate == null || !next.isAfter(endDate) ? next : null;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        bucket = bucketOf(userId);
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = LocalDateTime.now();
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
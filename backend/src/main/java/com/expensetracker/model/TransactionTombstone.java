@@ -0,0 +1,34 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Marks a deleted transaction for delta sync; the id is the deleted transaction's id
+@Entity
+@Table(name = "transaction_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionTombstone implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Tombstones are only ever inserted, so save() can persist without looking the id up first
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Budget;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, UUID> {
+
+    List<Budget> findByUserId(UUID userId);
+
+    Optional<Budget> findByUserIdAndCategoryId(UUID userId, UUID categoryId);
+
+    boolean existsByUserIdAndCategoryId(UUID userId, UUID categoryId);
+}
@@ -0,0 +1,178 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.CategoryTotal;
+import com.expensetracker.dto.TypeTotal;
+import com.expensetracker.model.MonthlyRollup;
+import com.expensetracker.model.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, UUID> {
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (id, user_id, month, type, category_id, total, count) " +
+                   "VALUES (gen_random_uuid(), :userId, :month, :type, :categoryId, :amount, :count) " +
+                   "ON CONFLICT (user_id, month, type, category_id) DO UPDATE SET " +
+                   "total = transaction_monthly_rollups.total + EXCLUDED.total, " +
+                   "count = transaction_monthly_rollups.count + EXCLUDED.count",
+           nativeQuery = true)
+    int applyDelta(
+            @Param("userId") UUID userId,
+            @Param("month") LocalDate month,
+            @Param("type") String type,
+            @Param("categoryId") UUID categoryId,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count);
+
+    // applyDelta for many buckets in one statement; the buckets must be distinct
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (id, user_id, month, type, category_id, total, count) " +
+                   "SELECT gen_random_uuid(), d.user_id, d.month, d.type, d.category_id, d.total, d.count " +
+                   "FROM unnest(CAST(:userIds AS uuid[]), CAST(:months AS date[]), CAST(:types AS varchar[]), " +
+                   "CAST(:categoryIds AS uuid[]), CAST(:amounts AS numeric[]), CAST(:counts AS bigint[])) " +
+                   "AS d(user_id, month, type, category_id, total, count) " +
+                   "ON CONFLICT (user_id, month, type, category_id) DO UPDATE SET " +
+                   "total = transaction_monthly_rollups.total + EXCLUDED.total, " +
+                   "count = transaction_monthly_rollups.count + EXCLUDED.count",
+           nativeQuery = true)
+    int applyDeltas(
+            @Param("userIds") UUID[] userIds,
+            @Param("months") LocalDate[] months,
+            @Param("types") String[] types,
+            @Param("categoryIds") UUID[] categoryIds,
+            @Param("amounts") BigDecimal[] amounts,
+            @Param("counts") Long[] counts);
+
+    @Query("SELECT new com.expensetracker.dto.TypeTotal(r.type, SUM(r.total), SUM(r.count)) " +
+           "FROM MonthlyRollup r WHERE r.userId = :userId AND " +
+           "(cast(:fromMonth as LocalDate) IS NULL OR r.month >= :fromMonth) AND " +
+           "(cast(:toMonth as LocalDate) IS NULL OR r.month <= :toMonth) " +
+           "GROUP BY r.type HAVING SUM(r.count) > 0")
+    List<TypeTotal> sumByType(
+            @Param("userId") UUID userId,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT new com.expensetracker.dto.CategoryTotal(r.categoryId, SUM(r.total)) " +
+           "FROM MonthlyRollup r WHERE r.userId = :userId AND " +
+           "r.categoryId <> :uncategorized AND " +
+           "(cast(:fromMonth as LocalDate) IS NULL OR r.month >= :fromMonth) AND " +
+           "(cast(:toMonth as LocalDate) IS NULL OR r.month <= :toMonth) " +
+           "GROUP BY r.categoryId HAVING SUM(r.count) > 0")
+    List<CategoryTotal> sumByCategory(
+            @Param("userId") UUID userId,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth,
+            @Param("uncategorized") UUID uncategorized);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    // Adds each of the category's buckets to the bucket for the same month and type under another category
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (id, user_id, month, type, category_id, total, count) " +
+                   "SELECT gen_random_uuid(), r.user_id, r.month, r.type, :targetCategoryId, r.total, r.count " +
+                   "FROM transaction_monthly_rollups r WHERE r.user_id = :userId AND r.category_id = :categoryId " +
+                   "ORDER BY r.month, r.type " +
+                   "ON CONFLICT (user_id, month, type, category_id) DO UPDATE SET " +
+                   "total = transaction_monthly_rollups.total + EXCLUDED.total, " +
+                   "count = transaction_monthly_rollups.count + EXCLUDED.count",
+           nativeQuery = true)
+    int mergeCategory(
+            @Param("userId") UUID userId,
+            @Param("categoryId") UUID categoryId,
+            @Param("targetCategoryId") UUID targetCategoryId);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId AND r.categoryId = :categoryId")
+    int deleteByUserIdAndCategoryId(@Param("userId") UUID userId, @Param("categoryId") UUID categoryId);
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (id, user_id, month, type, category_id, total, count) " +
+                   "SELECT gen_random_uuid(), t.user_id, CAST(date_trunc('month', t.date) AS date), t.type, " +
+                   "COALESCE(t.category_id, '00000000-0000-0000-0000-000000000000'), SUM(t.amount), COUNT(*) " +
+                   "FROM transactions t WHERE t.user_id = :userId " +
+                   "GROUP BY t.user_id, CAST(date_trunc('month', t.date) AS date), t.type, " +
+                   "COALESCE(t.category_id, '00000000-0000-0000-0000-000000000000')",
+           nativeQuery = true)
+    int rebuildForUser(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (id, user_id, month, type, category_id, total, count) " +
+                   "SELECT gen_random_uuid(), t.user_id, CAST(date_trunc('month', t.date) AS date), t.type, " +
+                   "COALESCE(t.category_id, '00000000-0000-0000-0000-000000000000'), SUM(t.amount), COUNT(*) " +
+                   "FROM transactions t " +
+                   "GROUP BY t.user_id, CAST(date_trunc('month', t.date) AS date), t.type, " +
+                   "COALESCE(t.category_id, '00000000-0000-0000-0000-000000000000')",
+           nativeQuery = true)
+    int rebuildAll();
+
+    // Holds back transaction writers and, unlike SHARE, conflicts with itself, so only one instance backfills
+    @Modifying
+    @Query(value = "LOCK TABLE transactions IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockTransactionsForBackfill();
+
+    Optional<MonthlyRollup> findByUserIdAndMonthAndTypeAndCategoryId(
+            UUID userId, LocalDate month, TransactionType type, UUID categoryId);
+
+    List<MonthlyRollup> findByUserIdAndMonthAndType(UUID userId, LocalDate month, TransactionType type);
+
+    @Query(value = "SELECT id FROM transaction_monthly_rollups WHERE user_id = :userId AND month >= :fromMonth " +
+                   "FOR UPDATE",
+           nativeQuery = true)
+    List<UUID> lockFromMonth(@Param("userId") UUID userId, @Param("fromMonth") LocalDate fromMonth);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId AND r.month >= :fromMonth")
+    int deleteFromMonth(@Param("userId") UUID userId, @Param("fromMonth") LocalDate fromMonth);
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (id, user_id, month, type, category_id, total, count) " +
+                   "SELECT gen_random_uuid(), t.user_id, CAST(date_trunc('month', t.date) AS date), t.type, " +
+                   "COALESCE(t.category_id, '00000000-0000-0000-0000-000000000000'), SUM(t.amount), COUNT(*) " +
+                   "FROM transactions t WHERE t.user_id = :userId AND t.date >= :fromMonth " +
+                   "GROUP BY t.user_id, CAST(date_trunc('month', t.date) AS date), t.type, " +
+                   "COALESCE(t.category_id, '00000000-0000-0000-0000-000000000000')",
+           nativeQuery = true)
+    int rebuildFromMonth(@Param("userId") UUID userId, @Param("fromMonth") LocalDate fromMonth);
+
+    // Users with a budget whose rollups from fromMonth on disagree with their transactions
+    @Query(value = "SELECT DISTINCT COALESCE(r.user_id, a.user_id) " +
+                   "FROM (SELECT user_id, month, type, category_id, total, count FROM transaction_monthly_rollups " +
+                   "      WHERE month >= :fromMonth AND count <> 0 AND user_id IN (SELECT user_id FROM budgets)) r " +
+                   "FULL OUTER JOIN (SELECT user_id, CAST(date_trunc('month', date) AS date) AS month, type, " +
+                   "      COALESCE(category_id, '00000000-0000-0000-0000-000000000000') AS category_id, " +
+                   "      SUM(amount) AS total, COUNT(*) AS count " +
+                   "      FROM transactions WHERE date >= :fromMonth AND user_id IN (SELECT user_id FROM budgets) " +
+                   "      GROUP BY 1, 2, 3, 4) a " +
+                   "ON r.user_id = a.user_id AND r.month = a.month AND r.type = a.type " +
+                   "AND r.category_id = a.category_id " +
+                   "WHERE r.total IS DISTINCT FROM a.total OR r.count IS DISTINCT FROM a.count",
+           nativeQuery = true)
+    List<UUID> findBudgetUsersWithDrift(@Param("fromMonth") LocalDate fromMonth);
+
+    @Query(value = "SELECT COALESCE(r.month, a.month), COALESCE(r.type, a.type), " +
+                   "COALESCE(r.category_id, a.category_id), r.total, a.total, r.count, a.count " +
+                   "FROM (SELECT month, type, category_id, total, count FROM transaction_monthly_rollups " +
+                   "      WHERE user_id = :userId AND count <> 0) r " +
+                   "FULL OUTER JOIN (SELECT CAST(date_trunc('month', date) AS date) AS month, type, " +
+                   "      COALESCE(category_id, '00000000-0000-0000-0000-000000000000') AS category_id, " +
+                   "      SUM(amount) AS total, COUNT(*) AS count " +
+                   "      FROM transactions WHERE user_id = :userId GROUP BY 1, 2, 3) a " +
+                   "ON r.month = a.month AND r.type = a.type AND r.category_id = a.category_id " +
+                   "WHERE r.total IS DISTINCT FROM a.total OR r.count IS DISTINCT FROM a.count " +
+                   "ORDER BY 1",
+           nativeQuery = true)
+    List<Object[]> findDrift(@Param("userId") UUID userId);
+}
@@ -0,0 +1,49 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.RecurringRule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, UUID> {
+
+    List<RecurringRule> findByUserIdOrderByCreatedAtAsc(UUID userId);
+
+    // Waits out a scheduler batch holding the rule, so an edit starts from the schedule it left behind
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringRule r WHERE r.id = :id")
+    Optional<RecurringRule> findByIdForUpdate(@Param("id") UUID id);
+
+    // Locks up to limit due rules of one bucket, passing over rules another run has already claimed
+    @Query(value = "SELECT * FROM recurring_rules WHERE bucket = :bucket AND next_occurrence <= :today " +
+                   "ORDER BY next_occurrence LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<RecurringRule> claimDue(
+            @Param("bucket") short bucket,
+            @Param("today") LocalDate today,
+            @Param("limit") int limit);
+
+    // Moves many claimed rules forward in one statement
+    @Modifying
+    @Query(value = "UPDATE recurring_rules r SET occurrences = d.occurrences, next_occurrence = d.next_occurrence, " +
+                   "updated_at = :now " +
+                   "FROM unnest(CAST(:ids AS uuid[]), CAST(:occurrences AS integer[]), CAST(:nextOccurrences AS date[])) " +
+                   "AS d(id, occurrences, next_occurrence) WHERE r.id = d.id",
+           nativeQuery = true)
+    int advance(
+            @Param("ids") UUID[] ids,
+            @Param("occurrences") Integer[] occurrences,
+            @Param("nextOccurrences") LocalDate[] nextOccurrences,
+            @Param("now") LocalDateTime now);
+}
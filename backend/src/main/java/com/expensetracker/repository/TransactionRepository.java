@@ -1,18 +1,31 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.CategoryTotal;
+import com.expensetracker.dto.TypeTotal;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
+        JpaSpecificationExecutor<Transaction> {
 
     List<Transaction> findByUserIdOrderByDateDesc(UUID userId);
 
@@ -22,16 +35,117 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     List<Transaction> findByUserIdAndTypeOrderByDateDesc(
             UUID userId, TransactionType type);
 
+    List<Transaction> findByIdInAndUserId(Collection<UUID> ids, UUID userId);
+
     @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND " +
-           "(:type IS NULL OR t.type = :type) AND " +
-           "(:categoryId IS NULL OR t.categoryId = :categoryId) AND " +
-           "(:startDate IS NULL OR t.date >= :startDate) AND " +
-           "(:endDate IS NULL OR t.date <= :endDate) " +
-           "ORDER BY t.date DESC")
-    List<Transaction> findByFilters(
+           "(t.updatedAt > :updatedAt OR (t.updatedAt = :updatedAt AND t.id > :id)) " +
+           "ORDER BY t.updatedAt, t.id")
+    List<Transaction> findChangedAfter(
+            @Param("userId") UUID userId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    // Inserts many transactions in one statement, for writers that produce whole batches at once
+    @Modifying
+    @Query(value = "INSERT INTO transactions (id, user_id, category_id, amount, type, description, date, " +
+                   "created_at, updated_at) " +
+                   "SELECT gen_random_uuid(), d.user_id, d.category_id, d.amount, d.type, d.description, d.date, " +
+                   ":now, :now " +
+                   "FROM unnest(CAST(:userIds AS uuid[]), CAST(:categoryIds AS uuid[]), CAST(:amounts AS numeric[]), " +
+                   "CAST(:types AS varchar[]), CAST(:descriptions AS text[]), CAST(:dates AS date[])) " +
+                   "AS d(user_id, category_id, amount, type, description, date)",
+           nativeQuery = true)
+    int insertAll(
+            @Param("userIds") UUID[] userIds,
+            @Param("categoryIds") UUID[] categoryIds,
+            @Param("amounts") BigDecimal[] amounts,
+            @Param("types") String[] types,
+            @Param("descriptions") String[] descriptions,
+            @Param("dates") LocalDate[] dates,
+            @Param("now") LocalDateTime now);
+
+    // Does what ON DELETE SET NULL would, but moves updated_at so delta sync picks the rows up
+    @Modifying
+    @Query("UPDATE Transaction t SET t.categoryId = NULL, t.updatedAt = :now " +
+           "WHERE t.userId = :userId AND t.categoryId = :categoryId")
+    int clearCategory(
             @Param("userId") UUID userId,
-            @Param("type") TransactionType type,
             @Param("categoryId") UUID categoryId,
+            @Param("now") LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND " +
+           "(cast(:startDate as LocalDate) IS NULL OR t.date >= :startDate) AND " +
+           "(cast(:endDate as LocalDate) IS NULL OR t.date <= :endDate) " +
+           "ORDER BY t.date DESC")
+    Stream<Transaction> streamByDateRange(
+            @Param("userId") UUID userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Just the columns the analytics cache keeps, oldest first
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.amount, t.date, t.type, t.categoryId FROM Transaction t " +
+           "WHERE t.userId = :userId ORDER BY t.date")
+    Stream<Object[]> streamColumns(@Param("userId") UUID userId);
+
+    // What the search index keeps per transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, t.description, t.date, t.type, t.categoryId FROM Transaction t " +
+           "WHERE t.userId = :userId")
+    Stream<Object[]> streamSearchFields(@Param("userId") UUID userId);
+
+    @Query("SELECT new com.expensetracker.dto.TypeTotal(t.type, SUM(t.amount), COUNT(t)) " +
+           "FROM Transaction t WHERE t.userId = :userId AND " +
+           "(cast(:startDate as LocalDate) IS NULL OR t.date >= :startDate) AND " +
+           "(cast(:endDate as LocalDate) IS NULL OR t.date <= :endDate) " +
+           "GROUP BY t.type")
+    List<TypeTotal> sumByType(
+            @Param("userId") UUID userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.expensetracker.dto.CategoryTotal(t.categoryId, SUM(t.amount)) " +
+           "FROM Transaction t WHERE t.userId = :userId AND t.categoryId IS NOT NULL AND " +
+           "(cast(:startDate as LocalDate) IS NULL OR t.date >= :startDate) AND " +
+           "(cast(:endDate as LocalDate) IS NULL OR t.date <= :endDate) " +
+           "GROUP BY t.categoryId")
+    List<CategoryTotal> sumByCategory(
+            @Param("userId") UUID userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Income, expense and the running net per date_trunc bucket, oldest first
+    @Query(value = "SELECT b.period, b.income, b.expense, " +
+                   "SUM(b.income - b.expense) OVER (ORDER BY b.period) " +
+                   "FROM (SELECT CAST(date_trunc(:unit, CAST(t.date AS timestamp)) AS date) AS period, " +
+                   "      COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'INCOME'), 0.00) AS income, " +
+                   "      COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'EXPENSE'), 0.00) AS expense " +
+                   "      FROM transactions t WHERE t.user_id = :userId AND " +
+                   "      (CAST(:startDate AS date) IS NULL OR t.date >= CAST(:startDate AS date)) AND " +
+                   "      (CAST(:endDate AS date) IS NULL OR t.date <= CAST(:endDate AS date)) " +
+                   "      GROUP BY 1) b " +
+                   "ORDER BY b.period",
+           nativeQuery = true)
+    List<Object[]> sumByPeriod(
+            @Param("userId") UUID userId,
+            @Param("unit") String unit,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Same buckets split by category (null for uncategorized); the caller folds them into periods
+    @Query(value = "SELECT CAST(date_trunc(:unit, CAST(t.date AS timestamp)) AS date), t.category_id, " +
+                   "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'INCOME'), 0.00), " +
+                   "COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'EXPENSE'), 0.00) " +
+                   "FROM transactions t WHERE t.user_id = :userId AND " +
+                   "(CAST(:startDate AS date) IS NULL OR t.date >= CAST(:startDate AS date)) AND " +
+                   "(CAST(:endDate AS date) IS NULL OR t.date <= CAST(:endDate AS date)) " +
+                   "GROUP BY 1, 2 ORDER BY 1",
+           nativeQuery = true)
+    List<Object[]> sumByPeriodAndCategory(
+            @Param("userId") UUID userId,
+            @Param("unit") String unit,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,76 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.TransactionCursor;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Transaction filters that emit only the predicates actually supplied, so each filter combination gets
+// its own SQL and PostgreSQL can plan it against the matching composite index
+public final class TransactionSpecifications {
+
+    // Keyset pagination order; created_at and id break ties between rows on the same date
+    public static final Sort NEWEST_FIRST = Sort.by(
+            Sort.Order.desc("date"), Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> filters(UUID userId, TransactionType type, UUID categoryId,
+                                                     LocalDate startDate, LocalDate endDate) {
+        Specification<Transaction> specification = belongsTo(userId);
+        if (type != null) {
+            specification = specification.and(hasType(type));
+        }
+        if (categoryId != null) {
+            specification = specification.and(inCategory(categoryId));
+        }
+        if (startDate != null) {
+            specification = specification.and(onOrAfter(startDate));
+        }
+        if (endDate != null) {
+            specification = specification.and(onOrBefore(endDate));
+        }
+        return specification;
+    }
+
+    public static Specification<Transaction> belongsTo(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Transaction> hasType(TransactionType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Transaction> inCategory(UUID categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("categoryId"), categoryId);
+    }
+
+    public static Specification<Transaction> onOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), date);
+    }
+
+    public static Specification<Transaction> onOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), date);
+    }
+
+    // Rows that come after the cursor in NEWEST_FIRST order. The leading date bound is implied by the OR, but
+    // the planner can only start the keyset index scan at the cursor from a plain conjunct.
+    public static Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("date"), cursor.getDate()),
+                cb.or(
+                        cb.lessThan(root.get("date"), cursor.getDate()),
+                        cb.and(
+                                cb.equal(root.get("date"), cursor.getDate()),
+                                cb.or(
+                                        cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                                        cb.and(
+                                                cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                                                cb.lessThan(root.get("id"), cursor.getId()))))));
+    }
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.TransactionTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionTombstoneRepository extends JpaRepository<TransactionTombstone, UUID> {
+
+    @Query("SELECT t FROM TransactionTombstone t WHERE t.userId = :userId AND " +
+           "(t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.id > :id)) " +
+           "ORDER BY t.deletedAt, t.id")
+    List<TransactionTombstone> findDeletedAfter(
+            @Param("userId") UUID userId,
+            @Param("deletedAt") LocalDateTime deletedAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TransactionTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,213 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetRequest;
+import com.expensetracker.dto.BudgetState;
+import com.expensetracker.dto.BudgetStatus;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.MonthlyRollup;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.MonthlyRollupRepository;
+import com.expensetracker.service.CacheInvalidationService.Scope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// A budget caps one expense category per calendar month. Spending is read from the monthly rollups, which
+// every transaction write already adjusts in its own database transaction, so checking a budget after a
+// write is two unique-key lookups whatever the size of the month.
+@Service
+@RequiredArgsConstructor
+public class BudgetService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BudgetRepository budgetRepository;
+    private final MonthlyRollupRepository rollupRepository;
+    private final CategoryService categoryService;
+    private final CategoryCache categoryCache;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
+    private final CacheInvalidationService cacheInvalidation;
+    private final MeterRegistry meterRegistry;
+
+    // Share of the limit at which a budget counts as nearly spent
+    @Value("${budget.warning-ratio:0.8}")
+    private BigDecimal warningRatio;
+
+    // Months checked by reconciliation, counting back from the current one
+    @Value("${budget.reconciliation.months:2}")
+    private int reconciliationMonths;
+
+    private Counter usersRepaired;
+
+    @PostConstruct
+    void registerMetrics() {
+        usersRepaired = Counter.builder("budget.reconciliation.repaired")
+                .description("Users whose spending counters reconciliation had to rebuild")
+                .register(meterRegistry);
+    }
+
+    public List<Budget> getAllBudgetsByUser(UUID userId) {
+        return budgetRepository.findByUserId(userId);
+    }
+
+    public Budget getBudgetById(UUID id, UUID userId) {
+        return checkOwner(budgetRepository.findById(id), userId);
+    }
+
+    @Transactional
+    public Budget createBudget(BudgetRequest request, UUID userId) {
+        validate(request, userId);
+        if (budgetRepository.existsByUserIdAndCategoryId(userId, request.getCategoryId())) {
+            throw new RuntimeException("Budget already exists for this category");
+        }
+
+        Budget budget = new Budget();
+        budget.setUserId(userId);
+        budget.setCategoryId(request.getCategoryId());
+        budget.setAmount(request.getAmount());
+        return budgetRepository.save(budget);
+    }
+
+    @Transactional
+    public Budget updateBudget(UUID id, BudgetRequest request, UUID userId) {
+        validate(request, userId);
+        Budget budget = getBudgetById(id, userId);
+        if (!budget.getCategoryId().equals(request.getCategoryId())
+                && budgetRepository.existsByUserIdAndCategoryId(userId, request.getCategoryId())) {
+            throw new RuntimeException("Budget already exists for this category");
+        }
+
+        budget.setCategoryId(request.getCategoryId());
+        budget.setAmount(request.getAmount());
+        return budgetRepository.save(budget);
+    }
+
+    @Transactional
+    public void deleteBudget(UUID id, UUID userId) {
+        budgetRepository.delete(getBudgetById(id, userId));
+    }
+
+    // Status of the budget covering the transaction's category and month, or null when none applies
+    @Transactional(readOnly = true)
+    public BudgetStatus evaluate(Transaction transaction) {
+        if (transaction.getType() != TransactionType.EXPENSE || transaction.getCategoryId() == null) {
+            return null;
+        }
+        UUID userId = transaction.getUserId();
+        Optional<Budget> budget = budgetRepository.findByUserIdAndCategoryId(userId, transaction.getCategoryId());
+        if (budget.isEmpty()) {
+            return null;
+        }
+
+        LocalDate month = transaction.getDate().withDayOfMonth(1);
+        BigDecimal spent = rollupRepository.findByUserIdAndMonthAndTypeAndCategoryId(
+                        userId, month, TransactionType.EXPENSE, transaction.getCategoryId())
+                .map(MonthlyRollup::getTotal)
+                .orElse(BigDecimal.ZERO);
+        return status(budget.get(), month, spent, categoryCache.getNameLookup(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BudgetStatus> getStatuses(UUID userId, LocalDate date) {
+        List<Budget> budgets = budgetRepository.findByUserId(userId);
+        if (budgets.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate month = date.withDayOfMonth(1);
+        Map<UUID, BigDecimal> spentByCategory = new HashMap<>();
+        for (MonthlyRollup rollup : rollupRepository.findByUserIdAndMonthAndType(userId, month, TransactionType.EXPENSE)) {
+            spentByCategory.put(rollup.getCategoryId(), rollup.getTotal());
+        }
+        Map<UUID, String> names = categoryCache.getNameLookup(userId);
+        return budgets.stream()
+                .map(budget -> status(budget, month,
+                        spentByCategory.getOrDefault(budget.getCategoryId(), BigDecimal.ZERO), names))
+                .toList();
+    }
+
+    // The rollups only drift if a write bypassed the service layer; rebuilding recent months for users with
+    // budgets keeps the advice they see honest without a full rollup rebuild
+    @Scheduled(fixedDelayString = "${budget.reconciliation.interval-ms:3600000}",
+               initialDelayString = "${budget.reconciliation.initial-delay-ms:300000}")
+    public void reconcileCounters() {
+        reconcile(LocalDate.now().withDayOfMonth(1).minusMonths(Math.max(reconciliationMonths - 1, 0)));
+    }
+
+    public int reconcile(LocalDate fromMonth) {
+        long start = System.nanoTime();
+        List<UUID> drifted = rollupRepository.findBudgetUsersWithDrift(fromMonth);
+        for (UUID userId : drifted) {
+            rollupService.repair(userId, fromMonth);
+            dataVersionService.bump(userId);
+            cacheInvalidation.publish(userId, Scope.ROLLUPS);
+            usersRepaired.increment();
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Budget reconciliation rebuilt spending counters from {} for {} users in {} ms",
+                    fromMonth, drifted.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return drifted.size();
+    }
+
+    private BudgetStatus status(Budget budget, LocalDate month, BigDecimal spent, Map<UUID, String> names) {
+        BigDecimal limit = budget.getAmount();
+        int percentUsed = spent.multiply(HUNDRED).divide(limit, 0, RoundingMode.DOWN).intValue();
+
+        BudgetState state;
+        if (spent.compareTo(limit) > 0) {
+            state = BudgetState.EXCEEDED;
+        } else if (spent.compareTo(limit.multiply(warningRatio)) >= 0) {
+            state = BudgetState.NEARING_LIMIT;
+        } else {
+            state = BudgetState.ON_TRACK;
+        }
+        return new BudgetStatus(budget.getId(), budget.getCategoryId(), names.get(budget.getCategoryId()),
+                month, limit, spent, limit.subtract(spent), percentUsed, state);
+    }
+
+    private void validate(BudgetRequest request, UUID userId) {
+        if (request.getCategoryId() == null) {
+            throw new RuntimeException("Missing category");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new RuntimeException("Amount must be positive");
+        }
+        Category category = categoryService.getCategoryById(request.getCategoryId(), userId);
+        if (category.getType() != TransactionType.EXPENSE) {
+            throw new RuntimeException("Budgets can only be set on expense categories");
+        }
+    }
+
+    private static Budget checkOwner(Optional<Budget> found, UUID userId) {
+        Budget budget = found.orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        if (!budget.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to budget");
+        }
+
+        return budget;
+    }
+}
@@ -0,0 +1,359 @@
+package com.expensetracker.service;
+
+import com.expensetracker.service.analytics.AnalyticsCache;
+import com.expensetracker.service.search.TransactionSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the in-process caches of every instance coherent with writes made by the others. Committed writes are
+// buffered per user and flushed a few milliseconds later as PostgreSQL notifications, so a burst of writes for
+// one user costs a single event; each instance listens on a dedicated connection and evicts what the events
+// name. Notifications sent while an instance is not listening are lost, so it drops all of its cached state
+// whenever its listener (re)connects. An event still buffered when an instance dies is lost as well.
+@Service
+@RequiredArgsConstructor
+public class CacheInvalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    static final String CHANNEL = "cache_invalidation";
+
+    public static final String LISTENER_NAME = "cache-invalidation-listener";
+
+    // NOTIFY payloads must stay under 8000 bytes; an entry is a uuid, a colon, a hex digit and a comma
+    private static final int MAX_ENTRIES_PER_NOTIFICATION = 150;
+
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    // What changed for a user. Every event also moves the user's data version, and so their ETags.
+    public enum Scope {
+        // Transaction rows: drops the analytics columns and search index
+        TRANSACTIONS,
+        // Category rows: drops the category list
+        CATEGORIES,
+        // Only data derived in the database, such as rollups
+        ROLLUPS;
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private final CategoryCache categoryCache;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionSearchIndex searchIndex;
+    private final DataVersionService dataVersionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    // Must reach PostgreSQL in session mode; LISTEN does not work through a transaction-mode pooler
+    @Value("${cache.invalidation.url:${spring.datasource.url}}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    // How long writes are gathered before they are published
+    @Value("${cache.invalidation.flush-ms:20}")
+    private long flushMs;
+
+    @Value("${cache.invalidation.poll-ms:500}")
+    private int pollMs;
+
+    @Value("${cache.invalidation.keepalive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("${cache.invalidation.reconnect-ms:1000}")
+    private long reconnectMs;
+
+    // Distinguishes this instance's own notifications, which it has already applied locally
+    private final String nodeId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    // Scope bits per user, waiting for the next flush
+    private final Map<UUID, Integer> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sender;
+    private Thread listener;
+    private volatile boolean running;
+    private volatile boolean connected;
+
+    private Counter eventsSent;
+    private Counter notificationsSent;
+    private Counter eventsApplied;
+    private Counter malformed;
+    private Counter fullFlushes;
+    private Timer lag;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        eventsSent = Counter.builder("cache.invalidation.events.sent")
+                .description("Per-user invalidation events published to other instances, after coalescing")
+                .register(meterRegistry);
+        notificationsSent = Counter.builder("cache.invalidation.notifications.sent")
+                .description("NOTIFY payloads carrying the published events")
+                .register(meterRegistry);
+        eventsApplied = Counter.builder("cache.invalidation.events.applied")
+                .description("Per-user invalidation events received from other instances and applied")
+                .register(meterRegistry);
+        malformed = Counter.builder("cache.invalidation.notifications.malformed")
+                .description("Received notifications skipped because their payload did not parse")
+                .register(meterRegistry);
+        fullFlushes = Counter.builder("cache.invalidation.full-flushes")
+                .description("Times every cached entry was dropped because notifications may have been missed")
+                .register(meterRegistry);
+        lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from flushing an event to applying it on another instance (wall clocks)")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.connected", this, service -> service.connected ? 1 : 0)
+                .description("Whether the listener connection is up")
+                .register(meterRegistry);
+
+        running = true;
+        sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        listener = new Thread(this::listen, LISTENER_NAME);
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+        // Whatever the last scheduled flush left behind
+        flush();
+        listener.join(pollMs * 2L);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // Announces a write to the other instances once the surrounding transaction commits
+    public void publish(UUID userId, Scope scope) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.merge(userId, scope.bit(), (a, b) -> a | b);
+                }
+            });
+        } else {
+            pending.merge(userId, scope.bit(), (a, b) -> a | b);
+        }
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<UUID, Integer> events = new HashMap<>();
+        for (UUID userId : pending.keySet()) {
+            Integer bits = pending.remove(userId);
+            if (bits != null) {
+                events.put(userId, bits);
+            }
+        }
+
+        List<String> payloads = encode(events);
+        try {
+            for (String payload : payloads) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+            }
+            eventsSent.increment(events.size());
+            notificationsSent.increment(payloads.size());
+        } catch (Exception e) {
+            // Sent again with the next flush; resending what did go out only costs extra evictions
+            events.forEach((userId, bits) -> pending.merge(userId, bits, (a, b) -> a | b));
+            log.warn("Could not publish {} cache invalidation events: {}", events.size(), e.getMessage());
+        }
+    }
+
+    // node;sent-at-millis;user:bits,user:bits,...
+    private List<String> encode(Map<UUID, Integer> events) {
+        List<String> payloads = new ArrayList<>();
+        String header = nodeId + ";" + System.currentTimeMillis() + ";";
+        StringBuilder payload = new StringBuilder(header);
+        int entries = 0;
+        for (Map.Entry<UUID, Integer> event : events.entrySet()) {
+            if (entries == MAX_ENTRIES_PER_NOTIFICATION) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+                payload.append(header);
+                entries = 0;
+            }
+            if (entries > 0) {
+                payload.append(',');
+            }
+            payload.append(event.getKey()).append(':').append(Integer.toHexString(event.getValue()));
+            entries++;
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    private void listen() {
+        long delay = reconnectMs;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties());
+                 Statement statement = connection.createStatement()) {
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                statement.execute("LISTEN " + CHANNEL);
+                connected = true;
+                delay = reconnectMs;
+                // Anything published before LISTEN took effect was missed
+                flushAll();
+
+                long lastCheck = System.nanoTime();
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(pollMs);
+                    if (received != null && received.length > 0) {
+                        apply(received);
+                    }
+                    // A silently dropped connection would otherwise just look like a quiet channel
+                    if (System.nanoTime() - lastCheck > TimeUnit.MILLISECONDS.toNanos(keepAliveMs)) {
+                        statement.execute("SELECT 1");
+                        lastCheck = System.nanoTime();
+                    }
+                }
+            } catch (Exception e) {
+                connected = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected ({}); reconnecting in {} ms",
+                        e.getMessage(), delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+        connected = false;
+    }
+
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        // Makes the listener easy to find in pg_stat_activity
+        properties.setProperty("ApplicationName", LISTENER_NAME);
+        return properties;
+    }
+
+    // Coalesces everything that arrived together, so a user named by several events is evicted once. A payload
+    // that does not parse is skipped whole; letting it throw would drop the connection and every cache with it.
+    private void apply(PGNotification[] received) {
+        Map<UUID, Integer> events = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (PGNotification notification : received) {
+            String payload = notification.getParameter();
+            try {
+                Map<UUID, Integer> parsed = parse(payload, now);
+                if (parsed != null) {
+                    parsed.forEach((userId, bits) -> events.merge(userId, bits, (a, b) -> a | b));
+                }
+            } catch (RuntimeException e) {
+                malformed.increment();
+                log.warn("Skipped malformed cache invalidation payload '{}': {}", payload, e.toString());
+            }
+        }
+
+        events.forEach((userId, bits) -> {
+            if ((bits & Scope.CATEGORIES.bit()) != 0) {
+                categoryCache.invalidate(userId);
+            }
+            if ((bits & Scope.TRANSACTIONS.bit()) != 0) {
+                analyticsCache.evict(userId);
+                searchIndex.evict(userId);
+            }
+            dataVersionService.bump(userId);
+        });
+        eventsApplied.increment(events.size());
+    }
+
+    // The events in one payload, or null for this instance's own notifications
+    private Map<UUID, Integer> parse(String payload, long now) {
+        String[] parts = payload.split(";", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("expected node;sent-at;events");
+        }
+        if (parts[0].equals(nodeId)) {
+            return null;
+        }
+        long sentAt = Long.parseLong(parts[1]);
+        Map<UUID, Integer> events = new HashMap<>();
+        if (!parts[2].isEmpty()) {
+            for (String entry : parts[2].split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("entry without a scope: " + entry);
+                }
+                events.merge(UUID.fromString(entry.substring(0, colon)),
+                        Integer.parseInt(entry.substring(colon + 1), 16), (a, b) -> a | b);
+            }
+        }
+        lag.record(Math.max(0, now - sentAt), TimeUnit.MILLISECONDS);
+        return events;
+    }
+
+    private void flushAll() {
+        categoryCache.invalidateAll();
+        analyticsCache.evictAll();
+        searchIndex.evictAll();
+        dataVersionService.bumpAll();
+        fullFlushes.increment();
+        log.info("Cache invalidation listener connected; dropped all cached user state");
+    }
+}
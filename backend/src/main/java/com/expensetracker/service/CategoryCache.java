@@ -0,0 +1,82 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.ReplicaRoutingDataSource;
+import com.expensetracker.model.Category;
+import com.expensetracker.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class CategoryCache {
+
+    private final LoadingCache<UUID, UserCategories> cache;
+
+    private static final class UserCategories {
+        private final List<Category> categories;
+        private final Map<UUID, String> names;
+
+        private UserCategories(List<Category> categories) {
+            this.categories = List.copyOf(categories);
+            Map<UUID, String> names = new HashMap<>();
+            for (Category category : categories) {
+                names.put(category.getId(), category.getName());
+            }
+            this.names = Map.copyOf(names);
+        }
+    }
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${category.cache.max-users:10000}") long maxUsers,
+                         @Value("${category.cache.ttl-minutes:10}") long ttlMinutes) {
+        TransactionTemplate loadTransaction = ReplicaRoutingDataSource.primaryTransaction(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build(userId -> new UserCategories(loadTransaction.execute(
+                        status -> categoryRepository.findByUserIdOrderByNameAsc(userId))));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "categories");
+    }
+
+    // Sorted by name, shared between callers and therefore unmodifiable
+    public List<Category> getCategories(UUID userId) {
+        return cache.get(userId).categories;
+    }
+
+    public Map<UUID, String> getNameLookup(UUID userId) {
+        return cache.get(userId).names;
+    }
+
+    // Evicts now and again after commit, so a reload racing the write cannot keep the old rows cached
+    public void invalidate(UUID userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
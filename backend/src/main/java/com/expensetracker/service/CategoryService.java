@@ -4,10 +4,15 @@ import com.expensetracker.dto.CategoryRequest;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.TransactionType;
 import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.CacheInvalidationService.Scope;
+import com.expensetracker.service.analytics.AnalyticsCache;
+import com.expensetracker.service.search.TransactionSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,15 +21,25 @@ import java.util.UUID;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
+    private final CategoryCache categoryCache;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionSearchIndex searchIndex;
+    private final CacheInvalidationService cacheInvalidation;
 
     public List<Category> getAllCategoriesByUser(UUID userId) {
-        return categoryRepository.findByUserIdOrderByNameAsc(userId);
+        return categoryCache.getCategories(userId);
     }
 
     public List<Category> getCategoriesByType(UUID userId, TransactionType type) {
-        return categoryRepository.findByUserIdAndTypeOrderByNameAsc(userId, type);
+        return categoryCache.getCategories(userId).stream()
+                .filter(category -> category.getType() == type)
+                .toList();
     }
 
+    @Transactional(readOnly = true)
     public Category getCategoryById(UUID id, UUID userId) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
@@ -47,7 +62,11 @@ public class CategoryService {
         category.setName(request.getName());
         category.setType(request.getType());
         
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        categoryCache.invalidate(userId);
+        dataVersionService.bump(userId);
+        cacheInvalidation.publish(userId, Scope.CATEGORIES);
+        return saved;
     }
 
     @Transactional
@@ -64,12 +83,25 @@ public class CategoryService {
         category.setName(request.getName());
         category.setType(request.getType());
         
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        categoryCache.invalidate(userId);
+        dataVersionService.bump(userId);
+        cacheInvalidation.publish(userId, Scope.CATEGORIES);
+        return saved;
     }
 
     @Transactional
     public void deleteCategory(UUID id, UUID userId) {
         Category category = getCategoryById(id, userId);
+        transactionRepository.clearCategory(userId, id, LocalDateTime.now());
+        rollupService.uncategorize(userId, id);
         categoryRepository.delete(category);
+        categoryCache.invalidate(userId);
+        // Transactions in the category become uncategorized in the database
+        analyticsCache.evict(userId);
+        searchIndex.evict(userId);
+        dataVersionService.bump(userId);
+        cacheInvalidation.publish(userId, Scope.CATEGORIES);
+        cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
     }
 }
@@ -0,0 +1,100 @@
+package com.expensetracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class DataVersionService {
+
+    // Distinguishes versions handed out by this process from those of a previous run
+    private final long epoch = System.currentTimeMillis();
+
+    // Moves every user's version at once, including users this process has never seen written
+    private final AtomicLong generation = new AtomicLong();
+
+    // Every change takes the next number, so a user's version only ever moves forward
+    private final AtomicLong sequence = new AtomicLong();
+
+    // The version of every user not in the map. Raised to each evicted user's version as it goes, so a user who
+    // drops out keeps a version at least as new as any they were given.
+    private final AtomicLong floor = new AtomicLong();
+
+    private final Cache<UUID, Long> versions;
+
+    // System.nanoTime() of each user's last change, and of the last bumpAll. Starts at startup, since writes
+    // made just before it went unseen. Entries are dropped once older than the stickiness window, the longest
+    // window anyone asks about.
+    private final Cache<UUID, Long> changedAt;
+    private volatile long allChangedAt = System.nanoTime();
+
+    public DataVersionService(@Value("${data.version.max-users:100000}") long maxUsers,
+                              @Value("${replica.datasource.stickiness-ms:5000}") long stickinessMs) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                // Runs as part of the eviction, before the user reads as absent
+                .evictionListener((UUID userId, Long version, RemovalCause cause) ->
+                        floor.accumulateAndGet(version, Math::max))
+                .build();
+        this.changedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(stickinessMs))
+                .build();
+    }
+
+    public String getVersion(UUID userId) {
+        Long version = versions.getIfPresent(userId);
+        return epoch + "." + generation.get() + "-" + (version != null ? version : floor.get());
+    }
+
+    // Validator for anything derived from the user's transactions and categories. Weak, because the same
+    // version is served gzipped or not, and the servlet container refuses to compress strong-tagged responses.
+    public String getETag(UUID userId) {
+        return "W/\"" + getVersion(userId) + "\"";
+    }
+
+    // For a second representation of the same data, which must not share the default validator
+    public String getETag(UUID userId, String variant) {
+        return "W/\"" + getVersion(userId) + "-" + variant + "\"";
+    }
+
+    // Deferred until commit so readers never pair a new version with uncommitted data
+    public void bump(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userId);
+                }
+            });
+        } else {
+            increment(userId);
+        }
+    }
+
+    // For when writes may have gone unseen, such as invalidations missed while disconnected
+    public void bumpAll() {
+        generation.incrementAndGet();
+        allChangedAt = System.nanoTime();
+    }
+
+    // Whether the user's data changed, here or on another instance, less than the given time ago
+    public boolean changedWithin(UUID userId, Duration window) {
+        long now = System.nanoTime();
+        long nanos = window.toNanos();
+        Long changed = changedAt.getIfPresent(userId);
+        return now - allChangedAt < nanos || (changed != null && now - changed < nanos);
+    }
+
+    private void increment(UUID userId) {
+        versions.put(userId, sequence.incrementAndGet());
+        changedAt.put(userId, System.nanoTime());
+    }
+}
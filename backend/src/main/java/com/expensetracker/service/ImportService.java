@@ -0,0 +1,178 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ImportResult;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.CacheInvalidationService.Scope;
+import com.expensetracker.service.analytics.AnalyticsCache;
+import com.expensetracker.service.search.TransactionSearchIndex;
+import com.expensetracker.service.importer.CsvStatementParser;
+import com.expensetracker.service.importer.ImportedRow;
+import com.expensetracker.service.importer.OfxStatementParser;
+import com.expensetracker.service.importer.StatementParser;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final int MAX_CATEGORY_NAME_LENGTH = 100;
+
+    private final CategoryCache categoryCache;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionSearchIndex searchIndex;
+    private final CacheInvalidationService cacheInvalidation;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    // Rows committed per database transaction; JDBC batching happens within each chunk
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    public ImportResult importStatement(UUID userId, InputStream input, String format, long resumeFromRow) {
+        long started = System.currentTimeMillis();
+        ImportResult result = new ImportResult();
+        result.setLastCommittedRow(resumeFromRow);
+
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        Map<String, UUID> categoryIds = loadCategoryIds(userId);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            StatementParser parser = createParser(format, reader);
+
+            List<ImportedRow> chunk = new ArrayList<>(chunkSize);
+            long rowNumber = 0;
+            ImportedRow row;
+            while ((row = parser.next()) != null) {
+                rowNumber++;
+                if (rowNumber <= resumeFromRow) {
+                    result.setRowsSkipped(result.getRowsSkipped() + 1);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    commitChunk(chunkTransaction, userId, chunk, categoryIds, result, rowNumber);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                commitChunk(chunkTransaction, userId, chunk, categoryIds, result, rowNumber);
+            }
+            result.setCompleted(true);
+        } catch (Exception e) {
+            log.warn("Import for user {} stopped after row {}", userId, result.getLastCommittedRow(), e);
+            result.setError(e.getMessage());
+        } finally {
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+        }
+        return result;
+    }
+
+    private StatementParser createParser(String format, BufferedReader reader) throws IOException {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> new CsvStatementParser(reader);
+            case "ofx", "qfx" -> new OfxStatementParser(reader);
+            default -> throw new RuntimeException("Unsupported import format: " + format);
+        };
+    }
+
+    private void commitChunk(TransactionTemplate chunkTransaction, UUID userId, List<ImportedRow> chunk,
+                             Map<String, UUID> categoryIds, ImportResult result, long lastRowNumber) {
+        Map<String, UUID> createdCategories = new HashMap<>();
+        chunkTransaction.executeWithoutResult(status -> {
+            List<Transaction> transactions = new ArrayList<>(chunk.size());
+            for (ImportedRow row : chunk) {
+                Transaction transaction = new Transaction();
+                transaction.setUserId(userId);
+                transaction.setCategoryId(resolveCategory(userId, row, categoryIds, createdCategories));
+                transaction.setAmount(row.getAmount());
+                transaction.setType(row.getType());
+                transaction.setDescription(row.getDescription());
+                transaction.setDate(row.getDate());
+                entityManager.persist(transaction);
+                transactions.add(transaction);
+            }
+            entityManager.flush();
+            rollupService.recordAll(transactions);
+            analyticsCache.evict(userId);
+            searchIndex.evict(userId);
+            if (!createdCategories.isEmpty()) {
+                categoryCache.invalidate(userId);
+                cacheInvalidation.publish(userId, Scope.CATEGORIES);
+            }
+            dataVersionService.bump(userId);
+            cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
+            entityManager.clear();
+        });
+
+        // Only publish categories created by a chunk that actually committed
+        categoryIds.putAll(createdCategories);
+        result.setRowsImported(result.getRowsImported() + chunk.size());
+        result.setCategoriesCreated(result.getCategoriesCreated() + createdCategories.size());
+        result.setChunksCommitted(result.getChunksCommitted() + 1);
+        result.setLastCommittedRow(lastRowNumber);
+        log.info("Import for user {}: chunk {} committed, {} rows imported so far",
+                userId, result.getChunksCommitted(), result.getRowsImported());
+    }
+
+    private UUID resolveCategory(UUID userId, ImportedRow row, Map<String, UUID> categoryIds,
+                                 Map<String, UUID> createdCategories) {
+        if (row.getCategoryName() == null) {
+            return null;
+        }
+        String name = row.getCategoryName().length() > MAX_CATEGORY_NAME_LENGTH
+                ? row.getCategoryName().substring(0, MAX_CATEGORY_NAME_LENGTH)
+                : row.getCategoryName();
+        String key = categoryKey(name, row.getType());
+        UUID id = categoryIds.get(key);
+        if (id == null) {
+            id = createdCategories.get(key);
+        }
+        if (id == null) {
+            Category category = new Category();
+            category.setUserId(userId);
+            category.setName(name);
+            category.setType(row.getType());
+            entityManager.persist(category);
+            id = category.getId();
+            createdCategories.put(key, id);
+        }
+        return id;
+    }
+
+    private Map<String, UUID> loadCategoryIds(UUID userId) {
+        Map<String, UUID> categoryIds = new HashMap<>();
+        for (Category category : categoryCache.getCategories(userId)) {
+            categoryIds.put(categoryKey(category.getName(), category.getType()), category.getId());
+        }
+        return categoryIds;
+    }
+
+    private static String categoryKey(String name, TransactionType type) {
+        return name.toLowerCase(Locale.ROOT) + "|" + type;
+    }
+}
@@ -1,6 +1,9 @@
 package com.expensetracker.service;
 
+import com.expensetracker.config.ReplicaRoutingContext;
+import com.expensetracker.dto.TransactionSummary;
 import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.pdf.PdfDocument;
@@ -11,43 +14,147 @@ import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PdfService {
 
+    // Rows are flushed to the writer in chunks of this size when rendering the large details table
+    private static final int TABLE_FLUSH_ROWS = 100;
+
     private final TemplateService templateService;
+    private final TransactionService transactionService;
+    private final CategoryCache categoryCache;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @FunctionalInterface
+    private interface RowSource {
+        void forEach(Consumer<Transaction> action);
+    }
+
+    // Counts bytes on their way to the real stream so streamed reports can be sized too
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 
     public byte[] generateTransactionReport(String userEmail, List<Transaction> transactions, 
                                            LocalDate startDate, LocalDate endDate) {
+        BigDecimal totalIncome = transactions.stream()
+                .filter(t -> t.getType() == TransactionType.INCOME)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalExpense = transactions.stream()
+                .filter(t -> t.getType() == TransactionType.EXPENSE)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Map<String, BigDecimal> categoryBreakdown = transactions.stream()
+                .filter(t -> t.getCategoryId() != null)
+                .filter(t -> categoryCache.getNameLookup(t.getUserId()).containsKey(t.getCategoryId()))
+                .collect(Collectors.groupingBy(
+                        t -> categoryCache.getNameLookup(t.getUserId()).get(t.getCategoryId()),
+                        Collectors.mapping(Transaction::getAmount,
+                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
+                ));
+
+        TransactionSummary summary = new TransactionSummary(
+                totalIncome, totalExpense, totalIncome.subtract(totalExpense),
+                categoryBreakdown, transactions.size());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeReport(baos, userEmail, startDate, endDate, summary, transactions::forEach);
+        return baos.toByteArray();
+    }
+
+    // Renders straight into the given stream; rows come from a database cursor so heap use does not grow with the report.
+    // Called from streaming and report-job threads, which carry no request, so it names the user the reads are for.
+    // The summary and the rows are read in one repeatable-read, read-only transaction, so both come from the same
+    // replica and snapshot and the totals match the rows listed under them.
+    public void writeTransactionReport(OutputStream out, String userEmail, UUID userId,
+                                       LocalDate startDate, LocalDate endDate) {
+        TransactionTemplate reportTransaction = new TransactionTemplate(transactionManager);
+        reportTransaction.setReadOnly(true);
+        reportTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        ReplicaRoutingContext.runAs(userId, () -> reportTransaction.executeWithoutResult(status -> {
+            TransactionSummary summary = transactionService.summarizeRange(userId, startDate, endDate);
+            writeReport(out, userEmail, startDate, endDate, summary,
+                    action -> transactionService.forEachTransaction(userId, startDate, endDate, action));
+        }));
+    }
+
+    private void writeReport(OutputStream out, String userEmail, LocalDate startDate, LocalDate endDate,
+                             TransactionSummary summary, RowSource rows) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CountingOutputStream counted = new CountingOutputStream(out);
+        String outcome = "error";
+        try {
+            renderReport(counted, userEmail, startDate, endDate, summary, rows);
+            outcome = "success";
+            DistributionSummary.builder("reports.pdf.size")
+                    .description("Size of generated PDF reports")
+                    .baseUnit("bytes")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(counted.count);
+        } finally {
+            sample.stop(Timer.builder("reports.pdf.generation")
+                    .description("Time to render a PDF report, including reading its rows")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void renderReport(OutputStream out, String userEmail, LocalDate startDate, LocalDate endDate,
+                              TransactionSummary summary, RowSource rows) {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            PdfWriter writer = new PdfWriter(out);
+            writer.setCloseStream(false);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
-            // Calculate summary
-            BigDecimal totalIncome = transactions.stream()
-                    .filter(t -> t.getType().toString().equals("INCOME"))
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal totalExpense = transactions.stream()
-                    .filter(t -> t.getType().toString().equals("EXPENSE"))
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal balance = totalIncome.subtract(totalExpense);
+            BigDecimal totalIncome = summary.getTotalIncome();
+            BigDecimal totalExpense = summary.getTotalExpense();
+            BigDecimal balance = summary.getBalance();
 
             // Title
             Paragraph title = new Paragraph("💰 Expense Tracker Report")
@@ -113,14 +220,8 @@ public class PdfService {
             document.add(summaryTable);
 
             // Category Breakdown
-            if (!transactions.isEmpty()) {
-                Map<String, BigDecimal> categoryBreakdown = transactions.stream()
-                        .filter(t -> t.getCategoryId() != null)
-                        .collect(Collectors.groupingBy(
-                                t -> "Category " + t.getCategoryId().toString().substring(0, 8),
-                                Collectors.mapping(Transaction::getAmount, 
-                                        Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                        ));
+            if (summary.getTransactionCount() > 0) {
+                Map<String, BigDecimal> categoryBreakdown = summary.getCategoryBreakdown();
 
                 if (!categoryBreakdown.isEmpty()) {
                     Paragraph categoryTitle = new Paragraph("📂 Category Breakdown")
@@ -156,14 +257,14 @@ public class PdfService {
                     .setMarginBottom(10);
             document.add(transactionsTitle);
 
-            if (transactions.isEmpty()) {
+            if (summary.getTransactionCount() == 0) {
                 Paragraph noData = new Paragraph("No transactions found for this period.")
                         .setFontSize(12)
                         .setItalic()
                         .setTextAlignment(TextAlignment.CENTER);
                 document.add(noData);
             } else {
-                Table table = new Table(UnitValue.createPercentArray(new float[]{2, 1, 3, 1}))
+                Table table = new Table(UnitValue.createPercentArray(new float[]{2, 1, 3, 1}), true)
                         .useAllAvailableWidth();
 
                 // Header
@@ -176,9 +277,11 @@ public class PdfService {
                 table.addHeaderCell(new Cell().add(new Paragraph("Amount").setBold())
                         .setTextAlignment(TextAlignment.RIGHT)
                         .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+                document.add(table);
 
                 // Rows
-                for (Transaction transaction : transactions) {
+                int[] rowCount = {0};
+                rows.forEach(transaction -> {
                     table.addCell(new Cell().add(new Paragraph(
                             transaction.getDate().format(formatter))));
                     
@@ -197,9 +300,13 @@ public class PdfService {
                             + "₹" + transaction.getAmount().toString();
                     table.addCell(new Cell().add(new Paragraph(amountStr))
                             .setTextAlignment(TextAlignment.RIGHT));
-                }
 
-                document.add(table);
+                    if (++rowCount[0] % TABLE_FLUSH_ROWS == 0) {
+                        table.flush();
+                    }
+                });
+
+                table.complete();
             }
 
             // Footer
@@ -216,7 +323,6 @@ public class PdfService {
             document.add(footerNote);
 
             document.close();
-            return baos.toByteArray();
 
         } catch (Exception e) {
             throw new RuntimeException("Error generating PDF: " + e.getMessage());
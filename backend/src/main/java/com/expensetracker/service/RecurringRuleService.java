@@ -0,0 +1,100 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.RecurringRuleRequest;
+import com.expensetracker.model.RecurringRule;
+import com.expensetracker.repository.RecurringRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Rules only describe a schedule; RecurringTransactionScheduler turns due occurrences into transactions
+@Service
+@RequiredArgsConstructor
+public class RecurringRuleService {
+
+    private final RecurringRuleRepository recurringRuleRepository;
+
+    public List<RecurringRule> getAllRulesByUser(UUID userId) {
+        return recurringRuleRepository.findByUserIdOrderByCreatedAtAsc(userId);
+    }
+
+    public RecurringRule getRuleById(UUID id, UUID userId) {
+        return checkOwner(recurringRuleRepository.findById(id), userId);
+    }
+
+    @Transactional
+    public RecurringRule createRule(RecurringRuleRequest request, UUID userId) {
+        validate(request);
+        RecurringRule rule = new RecurringRule();
+        rule.setUserId(userId);
+        applyRequest(rule, request);
+        rule.advanceTo(0);
+        return recurringRuleRepository.save(rule);
+    }
+
+    // Occurrences already materialized stay as they are; a changed schedule resumes after the last of them
+    @Transactional
+    public RecurringRule updateRule(UUID id, RecurringRuleRequest request, UUID userId) {
+        validate(request);
+        RecurringRule rule = checkOwner(recurringRuleRepository.findByIdForUpdate(id), userId);
+        LocalDate resumeFrom = rule.getOccurrences() > 0
+                ? rule.occurrence(rule.getOccurrences() - 1L).plusDays(1)
+                : null;
+
+        applyRequest(rule, request);
+        if (resumeFrom == null || resumeFrom.isBefore(rule.getStartDate())) {
+            rule.advanceTo(0);
+        } else {
+            rule.advanceTo(rule.getFrequency().firstIndexOnOrAfter(rule.getStartDate(), resumeFrom));
+        }
+        return recurringRuleRepository.save(rule);
+    }
+
+    @Transactional
+    public void deleteRule(UUID id, UUID userId) {
+        recurringRuleRepository.delete(getRuleById(id, userId));
+    }
+
+    private static RecurringRule checkOwner(Optional<RecurringRule> found, UUID userId) {
+        RecurringRule rule = found.orElseThrow(() -> new RuntimeException("Recurring rule not found"));
+
+        if (!rule.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to recurring rule");
+        }
+
+        return rule;
+    }
+
+    private static void validate(RecurringRuleRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() < 0) {
+            throw new RuntimeException("Amount must be zero or positive");
+        }
+        if (request.getType() == null) {
+            throw new RuntimeException("Missing type");
+        }
+        if (request.getFrequency() == null) {
+            throw new RuntimeException("Missing frequency");
+        }
+        if (request.getStartDate() == null) {
+            throw new RuntimeException("Missing start date");
+        }
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("End date must not be before the start date");
+        }
+    }
+
+    private static void applyRequest(RecurringRule rule, RecurringRuleRequest request) {
+        rule.setCategoryId(request.getCategoryId());
+        rule.setAmount(request.getAmount());
+        rule.setType(request.getType());
+        rule.setDescription(request.getDescription());
+        rule.setFrequency(request.getFrequency());
+        rule.setStartDate(request.getStartDate());
+        rule.setEndDate(request.getEndDate());
+    }
+}
@@ -0,0 +1,274 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.RecurringRule;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.repository.RecurringRuleRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.CacheInvalidationService.Scope;
+import com.expensetracker.service.analytics.AnalyticsCache;
+import com.expensetracker.service.search.TransactionSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Turns due recurring rules into transactions. A run covers every user at once: the rule table is split into
+// user-hash buckets, the buckets are spread over a fixed worker pool, and each worker claims due rules a batch
+// at a time, inserting the batch's occurrences and advancing its rules in one database transaction. A rule is
+// only ever advanced together with the transactions it produced, so a rerun (or a second instance, thanks to
+// SKIP LOCKED) finds nothing left to do, and a run after downtime materializes every period that was missed.
+@Service
+@RequiredArgsConstructor
+public class RecurringTransactionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionScheduler.class);
+
+    private final RecurringRuleRepository recurringRuleRepository;
+    private final TransactionRepository transactionRepository;
+    private final RollupService rollupService;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionSearchIndex searchIndex;
+    private final DataVersionService dataVersionService;
+    private final CacheInvalidationService cacheInvalidation;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recurring.scheduler.workers:4}")
+    private int workers;
+
+    // Rules claimed per database transaction
+    @Value("${recurring.scheduler.batch-size:500}")
+    private int batchSize;
+
+    // Occurrences one rule may add per batch; a rule further behind stays due and is claimed again
+    @Value("${recurring.scheduler.max-catch-up:366}")
+    private int maxCatchUp;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate batchTransaction;
+    private Timer runDuration;
+    private Counter rulesClaimed;
+    private Counter occurrencesMaterialized;
+    private Counter bucketsFailed;
+    private volatile double lastThroughput;
+
+    public record RunSummary(long rules, long occurrences, int failedBuckets, Duration elapsed) {
+        public double occurrencesPerSecond() {
+            return elapsed.isZero() ? 0 : occurrences * 1_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+
+    private record Batch(int rules, int occurrences) {
+    }
+
+    private record BucketResult(long rules, long occurrences, boolean failed) {
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recurring-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        batchTransaction = new TransactionTemplate(transactionManager);
+
+        runDuration = Timer.builder("recurring.run.duration")
+                .description("Time taken by one pass over all due recurring rules")
+                .register(meterRegistry);
+        rulesClaimed = Counter.builder("recurring.rules.claimed")
+                .description("Due recurring rules claimed by the scheduler")
+                .register(meterRegistry);
+        occurrencesMaterialized = Counter.builder("recurring.occurrences.materialized")
+                .description("Transactions created from recurring rules")
+                .register(meterRegistry);
+        bucketsFailed = Counter.builder("recurring.buckets.failed")
+                .description("Rule buckets a run gave up on; they are retried by the next run")
+                .register(meterRegistry);
+        Gauge.builder("recurring.run.throughput", this, scheduler -> scheduler.lastThroughput)
+                .description("Occurrences materialized per second by the last run that had work")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${recurring.scheduler.interval-ms:3600000}",
+               initialDelayString = "${recurring.scheduler.initial-delay-ms:60000}")
+    public void materializeDue() {
+        run(LocalDate.now());
+    }
+
+    // Materializes every occurrence dated on or before today
+    public RunSummary run(LocalDate today) {
+        long started = System.nanoTime();
+        List<Future<BucketResult>> results = new ArrayList<>(RecurringRule.BUCKETS);
+        for (int bucket = 0; bucket < RecurringRule.BUCKETS; bucket++) {
+            short claimed = (short) bucket;
+            results.add(executor.submit(() -> materializeBucket(claimed, today)));
+        }
+
+        long rules = 0;
+        long occurrences = 0;
+        int failed = 0;
+        try {
+            for (Future<BucketResult> result : results) {
+                BucketResult bucket = result.get();
+                rules += bucket.rules();
+                occurrences += bucket.occurrences();
+                if (bucket.failed()) {
+                    failed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            results.forEach(result -> result.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Recurring transaction run was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Recurring transaction run failed: " + e.getCause().getMessage());
+        }
+
+        RunSummary summary = new RunSummary(rules, occurrences, failed, Duration.ofNanos(System.nanoTime() - started));
+        runDuration.record(summary.elapsed());
+        if (rules > 0) {
+            lastThroughput = summary.occurrencesPerSecond();
+            log.info("Recurring run for {}: {} occurrences from {} rule claims in {} ms ({} occurrences/s, {} workers)",
+                    today, occurrences, rules, summary.elapsed().toMillis(),
+                    Math.round(summary.occurrencesPerSecond()), workers);
+        }
+        if (failed > 0) {
+            log.warn("Recurring run for {}: {} of {} buckets failed and will be retried by the next run",
+                    today, failed, RecurringRule.BUCKETS);
+        }
+        return summary;
+    }
+
+    // Claims batches until the bucket has nothing due. A failed batch rolls back on its own, so the bucket
+    // keeps whatever earlier batches committed.
+    private BucketResult materializeBucket(short bucket, LocalDate today) {
+        long rules = 0;
+        long occurrences = 0;
+        try {
+            while (true) {
+                Batch batch = batchTransaction.execute(status -> materializeBatch(bucket, today));
+                if (batch.rules() == 0) {
+                    return new BucketResult(rules, occurrences, false);
+                }
+                rules += batch.rules();
+                occurrences += batch.occurrences();
+                rulesClaimed.increment(batch.rules());
+                occurrencesMaterialized.increment(batch.occurrences());
+            }
+        } catch (Exception e) {
+            log.warn("Recurring rules in bucket {} stopped after {} occurrences", bucket, occurrences, e);
+            bucketsFailed.increment();
+            return new BucketResult(rules, occurrences, true);
+        }
+    }
+
+    // Four statements per batch however many rules and users it covers: the claim, one insert for all
+    // occurrences, one update advancing every claimed rule, and one rollup upsert
+    private Batch materializeBatch(short bucket, LocalDate today) {
+        List<RecurringRule> rules = recurringRuleRepository.claimDue(bucket, today, batchSize);
+        if (rules.isEmpty()) {
+            return new Batch(0, 0);
+        }
+        // The rules are written back by advance() below, not flushed as dirty entities
+        entityManager.clear();
+
+        List<Transaction> transactions = new ArrayList<>();
+        Set<UUID> users = new HashSet<>();
+        UUID[] ids = new UUID[rules.size()];
+        Integer[] occurrences = new Integer[rules.size()];
+        LocalDate[] nextOccurrences = new LocalDate[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            RecurringRule rule = rules.get(i);
+            long index = rule.getOccurrences();
+            long limit = index + maxCatchUp;
+            while (index < limit && rule.getNextOccurrence() != null && !rule.getNextOccurrence().isAfter(today)) {
+                transactions.add(occurrence(rule, rule.getNextOccurrence()));
+                rule.advanceTo(++index);
+            }
+            ids[i] = rule.getId();
+            occurrences[i] = rule.getOccurrences();
+            nextOccurrences[i] = rule.getNextOccurrence();
+            users.add(rule.getUserId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        insert(transactions, now);
+        recurringRuleRepository.advance(ids, occurrences, nextOccurrences, now);
+        rollupService.recordAll(transactions);
+        for (UUID userId : users) {
+            analyticsCache.evict(userId);
+            searchIndex.evict(userId);
+            dataVersionService.bump(userId);
+            cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
+        }
+        return new Batch(rules.size(), transactions.size());
+    }
+
+    private void insert(List<Transaction> transactions, LocalDateTime now) {
+        int size = transactions.size();
+        UUID[] userIds = new UUID[size];
+        UUID[] categoryIds = new UUID[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        String[] types = new String[size];
+        String[] descriptions = new String[size];
+        LocalDate[] dates = new LocalDate[size];
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = transactions.get(i);
+            userIds[i] = transaction.getUserId();
+            categoryIds[i] = transaction.getCategoryId();
+            amounts[i] = transaction.getAmount();
+            types[i] = transaction.getType().name();
+            descriptions[i] = transaction.getDescription();
+            dates[i] = transaction.getDate();
+        }
+        transactionRepository.insertAll(userIds, categoryIds, amounts, types, descriptions, dates, now);
+    }
+
+    private static Transaction occurrence(RecurringRule rule, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId(rule.getUserId());
+        transaction.setCategoryId(rule.getCategoryId());
+        transaction.setAmount(rule.getAmount());
+        transaction.setType(rule.getType());
+        transaction.setDescription(rule.getDescription());
+        transaction.setDate(date);
+        return transaction;
+    }
+}
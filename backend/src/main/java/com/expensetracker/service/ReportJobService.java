@@ -0,0 +1,260 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ReportJobStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Renders PDF reports on a bounded worker pool and keeps the results in a local file cache. Job state and
+// artifacts live only in this instance (its maps and its cache directory), so behind a load balancer the
+// /api/reports endpoints must be routed stickily per user, or a status poll or download that reaches another
+// instance answers 404. A restart forgets every job as well, and clients have to submit again.
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final PdfService pdfService;
+    private final DataVersionService dataVersionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${report.jobs.workers:4}")
+    private int workers;
+
+    @Value("${report.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${report.cache.dir:${java.io.tmpdir}/expense-tracker-reports}")
+    private String cacheDir;
+
+    @Value("${report.cache.ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private Path cachePath;
+    private Timer jobLatency;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    private static final class ReportJob {
+        private final UUID id = UUID.randomUUID();
+        private final UUID userId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final Path artifact;
+        private final Instant submittedAt = Instant.now();
+        private volatile String status = QUEUED;
+        private volatile boolean cached;
+        private volatile Instant completedAt;
+        private volatile String error;
+
+        private ReportJob(UUID userId, LocalDate startDate, LocalDate endDate, Path artifact) {
+            this.userId = userId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.artifact = artifact;
+        }
+
+        private ReportJobStatus toStatus() {
+            return new ReportJobStatus(id, status, startDate, endDate, cached, submittedAt, completedAt, error);
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        cachePath = Paths.get(cacheDir);
+        Files.createDirectories(cachePath);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("reports.queue.depth", executor, e -> e.getQueue().size())
+                .description("Report jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("reports.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Report jobs currently rendering")
+                .register(meterRegistry);
+        jobLatency = Timer.builder("reports.job.latency")
+                .description("Time from submission to a finished report")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        cacheHits = Counter.builder("reports.cache.requests").tag("result", "hit").register(meterRegistry);
+        cacheMisses = Counter.builder("reports.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public ReportJobStatus submit(UUID userId, String userEmail, LocalDate startDate, LocalDate endDate) {
+        String cacheKey = cacheKey(userId, startDate, endDate, dataVersionService.getVersion(userId));
+        Path artifact = cachePath.resolve(cacheKey + ".pdf");
+
+        ReportJob running = inFlight.get(cacheKey);
+        if (running != null) {
+            return running.toStatus();
+        }
+
+        ReportJob job = new ReportJob(userId, startDate, endDate, artifact);
+        jobs.put(job.id, job);
+
+        if (Files.exists(artifact)) {
+            cacheHits.increment();
+            job.cached = true;
+            job.status = COMPLETED;
+            job.completedAt = Instant.now();
+            return job.toStatus();
+        }
+
+        cacheMisses.increment();
+        ReportJob existing = inFlight.putIfAbsent(cacheKey, job);
+        if (existing != null) {
+            jobs.remove(job.id);
+            return existing.toStatus();
+        }
+
+        try {
+            executor.execute(() -> run(job, cacheKey, userEmail));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(cacheKey);
+            jobs.remove(job.id);
+            throw new RuntimeException("Report queue is full, please try again later");
+        }
+        return job.toStatus();
+    }
+
+    private void run(ReportJob job, String cacheKey, String userEmail) {
+        job.status = RUNNING;
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(cachePath, cacheKey, ".part");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                pdfService.writeTransactionReport(out, userEmail, job.userId, job.startDate, job.endDate);
+            }
+            Files.move(temp, job.artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.status = COMPLETED;
+        } catch (Exception e) {
+            log.warn("Report job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = FAILED;
+            deleteQuietly(temp);
+        } finally {
+            job.completedAt = Instant.now();
+            jobLatency.record(Duration.between(job.submittedAt, job.completedAt));
+            inFlight.remove(cacheKey);
+        }
+    }
+
+    public ReportJobStatus getStatus(UUID jobId, UUID userId) {
+        return getJob(jobId, userId).toStatus();
+    }
+
+    public Path getArtifact(UUID jobId, UUID userId) {
+        ReportJob job = getJob(jobId, userId);
+        if (!COMPLETED.equals(job.status) || !Files.exists(job.artifact)) {
+            throw new RuntimeException("Report is not ready");
+        }
+        return job.artifact;
+    }
+
+    private ReportJob getJob(UUID jobId, UUID userId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            throw new RuntimeException("Report job not found");
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${report.cache.sweep-interval-ms:300000}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(cacheTtlMinutes));
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+        // A job served from the cache can be much younger than its artifact, which stays while the job does
+        Set<Path> referenced = jobs.values().stream().map(job -> job.artifact).collect(Collectors.toSet());
+
+        try (Stream<Path> files = Files.list(cachePath)) {
+            files.filter(file -> !referenced.contains(file) && isOlderThan(file, cutoff))
+                    .forEach(ReportJobService::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not sweep report cache {}", cachePath, e);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Picked up again by the next sweep
+        }
+    }
+
+    private static String cacheKey(UUID userId, LocalDate startDate, LocalDate endDate, String version) {
+        try {
+            String raw = userId + "|" + startDate + "|" + endDate + "|" + version;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("Error computing report cache key: " + e.getMessage());
+        }
+    }
+}
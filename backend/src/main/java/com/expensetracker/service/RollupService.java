@@ -0,0 +1,242 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategoryTotal;
+import com.expensetracker.dto.RollupDrift;
+import com.expensetracker.dto.TypeTotal;
+import com.expensetracker.model.MonthlyRollup;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.repository.MonthlyRollupRepository;
+import com.expensetracker.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class RollupService {
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+
+    public void record(Transaction transaction) {
+        applyDelta(transaction, transaction.getAmount(), 1);
+    }
+
+    public void revert(Transaction transaction) {
+        applyDelta(transaction, transaction.getAmount().negate(), -1);
+    }
+
+    public void recordAll(Collection<Transaction> transactions) {
+        applyAll(transactions, 1);
+    }
+
+    public void revertAll(Collection<Transaction> transactions) {
+        applyAll(transactions, -1);
+    }
+
+    // Collapses the rows into one delta per (user, month, type, category) bucket and applies them in a single
+    // upsert, in a fixed bucket order so concurrent writers lock rollup rows in the same sequence
+    private void applyAll(Collection<Transaction> transactions, int sign) {
+        Map<Bucket, BigDecimal> totals = new TreeMap<>(Bucket.ORDER);
+        Map<Bucket, Long> counts = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            Bucket bucket = Bucket.of(transaction);
+            BigDecimal amount = sign < 0 ? transaction.getAmount().negate() : transaction.getAmount();
+            totals.merge(bucket, amount, BigDecimal::add);
+            counts.merge(bucket, (long) sign, Long::sum);
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+        if (totals.size() == 1) {
+            Bucket bucket = totals.keySet().iterator().next();
+            rollupRepository.applyDelta(bucket.userId(), bucket.month(), bucket.type().name(), bucket.categoryId(),
+                    totals.get(bucket), counts.get(bucket));
+            return;
+        }
+
+        int size = totals.size();
+        UUID[] userIds = new UUID[size];
+        LocalDate[] months = new LocalDate[size];
+        String[] types = new String[size];
+        UUID[] categoryIds = new UUID[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        Long[] deltas = new Long[size];
+        int i = 0;
+        for (Map.Entry<Bucket, BigDecimal> entry : totals.entrySet()) {
+            Bucket bucket = entry.getKey();
+            userIds[i] = bucket.userId();
+            months[i] = bucket.month();
+            types[i] = bucket.type().name();
+            categoryIds[i] = bucket.categoryId();
+            amounts[i] = entry.getValue();
+            deltas[i] = counts.get(bucket);
+            i++;
+        }
+        rollupRepository.applyDeltas(userIds, months, types, categoryIds, amounts, deltas);
+    }
+
+    // The category's transactions have just become uncategorized, so its buckets move to the uncategorized key
+    @Transactional
+    public void uncategorize(UUID userId, UUID categoryId) {
+        rollupRepository.mergeCategory(userId, categoryId, MonthlyRollup.UNCATEGORIZED);
+        rollupRepository.deleteByUserIdAndCategoryId(userId, categoryId);
+    }
+
+    private void applyDelta(Transaction transaction, BigDecimal amount, long count) {
+        Bucket bucket = Bucket.of(transaction);
+        rollupRepository.applyDelta(
+                bucket.userId(), bucket.month(), bucket.type().name(), bucket.categoryId(), amount, count);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TypeTotal> sumByType(UUID userId, LocalDate startDate, LocalDate endDate) {
+        MonthRange range = MonthRange.of(startDate, endDate);
+        if (range == null) {
+            return transactionRepository.sumByType(userId, startDate, endDate);
+        }
+
+        List<TypeTotal> totals = new ArrayList<>(
+                rollupRepository.sumByType(userId, range.firstMonth, range.lastMonth));
+        if (range.hasLeadingDays()) {
+            totals.addAll(transactionRepository.sumByType(userId, startDate, range.firstMonth.minusDays(1)));
+        }
+        if (range.hasTrailingDays()) {
+            totals.addAll(transactionRepository.sumByType(userId, range.lastMonth.plusMonths(1), endDate));
+        }
+        return totals;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryTotal> sumByCategory(UUID userId, LocalDate startDate, LocalDate endDate) {
+        MonthRange range = MonthRange.of(startDate, endDate);
+        if (range == null) {
+            return transactionRepository.sumByCategory(userId, startDate, endDate);
+        }
+
+        List<CategoryTotal> totals = new ArrayList<>(
+                rollupRepository.sumByCategory(userId, range.firstMonth, range.lastMonth, MonthlyRollup.UNCATEGORIZED));
+        if (range.hasLeadingDays()) {
+            totals.addAll(transactionRepository.sumByCategory(userId, startDate, range.firstMonth.minusDays(1)));
+        }
+        if (range.hasTrailingDays()) {
+            totals.addAll(transactionRepository.sumByCategory(userId, range.lastMonth.plusMonths(1), endDate));
+        }
+        return totals;
+    }
+
+    public List<RollupDrift> verify(UUID userId) {
+        return rollupRepository.findDrift(userId).stream()
+                .map(row -> new RollupDrift(
+                        toLocalDate(row[0]),
+                        (String) row[1],
+                        (UUID) row[2],
+                        row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO,
+                        row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO,
+                        row[5] != null ? ((Number) row[5]).longValue() : 0L,
+                        row[6] != null ? ((Number) row[6]).longValue() : 0L))
+                .toList();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    @Transactional
+    public int rebuild(UUID userId) {
+        rollupRepository.deleteByUserId(userId);
+        return rollupRepository.rebuildForUser(userId);
+    }
+
+    // Recomputes the user's rollups from fromMonth on. Locking the existing rows first waits out writers that
+    // already adjusted them, and holds back later writers until the recomputed rows are in place.
+    @Transactional
+    public int repair(UUID userId, LocalDate fromMonth) {
+        rollupRepository.lockFromMonth(userId, fromMonth);
+        rollupRepository.deleteFromMonth(userId, fromMonth);
+        return rollupRepository.rebuildFromMonth(userId, fromMonth);
+    }
+
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        rollupRepository.lockTransactionsForBackfill();
+        // Another instance may have backfilled while this one waited for the lock
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        rollupRepository.rebuildAll();
+    }
+
+    private record Bucket(UUID userId, LocalDate month, TransactionType type, UUID categoryId) {
+        static final Comparator<Bucket> ORDER = Comparator.comparing(Bucket::userId)
+                .thenComparing(Bucket::month)
+                .thenComparing(Bucket::type)
+                .thenComparing(Bucket::categoryId);
+
+        static Bucket of(Transaction transaction) {
+            return new Bucket(
+                    transaction.getUserId(),
+                    transaction.getDate().withDayOfMonth(1),
+                    transaction.getType(),
+                    transaction.getCategoryId() != null ? transaction.getCategoryId() : MonthlyRollup.UNCATEGORIZED);
+        }
+    }
+
+    // Splits [startDate, endDate] into whole months served from rollups plus partial edge days
+    private static final class MonthRange {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDate firstMonth;
+        private final LocalDate lastMonth;
+
+        private MonthRange(LocalDate startDate, LocalDate endDate, LocalDate firstMonth, LocalDate lastMonth) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.firstMonth = firstMonth;
+            this.lastMonth = lastMonth;
+        }
+
+        static MonthRange of(LocalDate startDate, LocalDate endDate) {
+            LocalDate firstMonth = null;
+            if (startDate != null) {
+                firstMonth = startDate.getDayOfMonth() == 1
+                        ? startDate
+                        : startDate.withDayOfMonth(1).plusMonths(1);
+            }
+            LocalDate lastMonth = null;
+            if (endDate != null) {
+                lastMonth = endDate.getDayOfMonth() == endDate.lengthOfMonth()
+                        ? endDate.withDayOfMonth(1)
+                        : endDate.withDayOfMonth(1).minusMonths(1);
+            }
+            if (firstMonth != null && lastMonth != null && firstMonth.isAfter(lastMonth)) {
+                return null;
+            }
+            return new MonthRange(startDate, endDate, firstMonth, lastMonth);
+        }
+
+        boolean hasLeadingDays() {
+            return startDate != null && startDate.isBefore(firstMonth);
+        }
+
+        boolean hasTrailingDays() {
+            return endDate != null && endDate.isAfter(lastMonth.plusMonths(1).minusDays(1));
+        }
+    }
+}
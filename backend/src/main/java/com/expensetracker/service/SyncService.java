@@ -0,0 +1,126 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ChangeCursor;
+import com.expensetracker.dto.TransactionChanges;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionTombstone;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.repository.TransactionTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTombstoneRepository tombstoneRepository;
+    private final Duration retention;
+    private final Duration commitLag;
+
+    public SyncService(TransactionRepository transactionRepository,
+                       TransactionTombstoneRepository tombstoneRepository,
+                       @Value("${sync.tombstones.retention-days:30}") long retentionDays,
+                       @Value("${sync.commit-lag-seconds:5}") long commitLagSeconds) {
+        this.transactionRepository = transactionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.retention = Duration.ofDays(retentionDays);
+        this.commitLag = Duration.ofSeconds(commitLagSeconds);
+    }
+
+    // Called inside the deleting transaction so the tombstone commits or rolls back with the delete
+    public void recordDeletion(Transaction transaction) {
+        tombstoneRepository.save(new TransactionTombstone(
+                transaction.getId(), transaction.getUserId(), LocalDateTime.now()));
+    }
+
+    public void recordDeletions(Collection<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        tombstoneRepository.saveAll(transactions.stream()
+                .map(transaction -> new TransactionTombstone(transaction.getId(), transaction.getUserId(), now))
+                .toList());
+    }
+
+    // Rows and tombstones are each read from their (user, timestamp, id) index and merged, so the cost
+    // follows the number of changes rather than the size of the table. On the primary, in a transaction of
+    // its own (see ReplicaRoutingDataSource).
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public TransactionChanges getChanges(UUID userId, String since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        ChangeCursor after = since != null && !since.isBlank() ? ChangeCursor.decode(since) : null;
+        boolean fullResyncRequired = after != null && after.getTimestamp().isBefore(now.minus(retention));
+        if (fullResyncRequired) {
+            after = null;
+        }
+
+        ChangeCursor from = after != null ? after : ChangeCursor.START;
+        List<Transaction> rows = transactionRepository.findChangedAfter(
+                userId, from.getTimestamp(), from.getId(), Limit.of(limit + 1));
+        // Starting from scratch there is nothing to delete on the client
+        List<TransactionTombstone> tombstones = after != null
+                ? tombstoneRepository.findDeletedAfter(userId, from.getTimestamp(), from.getId(), Limit.of(limit + 1))
+                : List.of();
+
+        List<Transaction> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        ChangeCursor last = from;
+        int rowIndex = 0;
+        int tombstoneIndex = 0;
+        while (changed.size() + deleted.size() < limit
+                && (rowIndex < rows.size() || tombstoneIndex < tombstones.size())) {
+            ChangeCursor nextRow = rowIndex < rows.size() ? position(rows.get(rowIndex)) : null;
+            ChangeCursor nextTombstone = tombstoneIndex < tombstones.size()
+                    ? position(tombstones.get(tombstoneIndex)) : null;
+            if (nextTombstone == null || (nextRow != null && ChangeCursor.ORDER.compare(nextRow, nextTombstone) < 0)) {
+                changed.add(rows.get(rowIndex++));
+                last = nextRow;
+            } else {
+                deleted.add(tombstones.get(tombstoneIndex++).getId());
+                last = nextTombstone;
+            }
+        }
+        boolean hasMore = rowIndex < rows.size() || tombstoneIndex < tombstones.size();
+
+        // Writes still in flight may commit with an earlier timestamp than rows already returned, so the
+        // final cursor trails the clock by the commit lag and the most recent changes are sent again
+        ChangeCursor next = last;
+        if (!hasMore) {
+            ChangeCursor settled = new ChangeCursor(now.minus(commitLag), ChangeCursor.START.getId());
+            if (ChangeCursor.ORDER.compare(settled, next) < 0) {
+                next = ChangeCursor.ORDER.compare(settled, from) > 0 ? settled : from;
+            }
+        }
+        return new TransactionChanges(changed, deleted, next.encode(), hasMore, fullResyncRequired);
+    }
+
+    @Scheduled(fixedDelayString = "${sync.tombstones.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compactTombstones() {
+        int removed = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("Compacted {} transaction tombstones older than {} days", removed, retention.toDays());
+        }
+    }
+
+    private static ChangeCursor position(Transaction transaction) {
+        return new ChangeCursor(transaction.getUpdatedAt(), transaction.getId());
+    }
+
+    private static ChangeCursor position(TransactionTombstone tombstone) {
+        return new ChangeCursor(tombstone.getDeletedAt(), tombstone.getId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.expensetracker.service;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+
+// Compiles every template under classpath:/templates once and hands out the shared Template instances
+@Component
+@RequiredArgsConstructor
+public class TemplateRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateRegistry.class);
+
+    private static final String LOCATION = "classpath:/templates/*.mustache";
+    private static final String SUFFIX = ".mustache";
+
+    private final Mustache.Compiler mustacheCompiler;
+
+    @Value("${templates.watch:false}")
+    private boolean watch;
+
+    private volatile Map<String, Template> templates = Map.of();
+    private WatchService watchService;
+
+    @PostConstruct
+    void load() throws IOException {
+        templates = compileAll();
+        log.info("Compiled {} templates", templates.size());
+        if (watch) {
+            startWatching();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    public Template get(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new RuntimeException("Unknown template: " + name);
+        }
+        return template;
+    }
+
+    private Map<String, Template> compileAll() throws IOException {
+        Map<String, Template> compiled = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                compiled.put(filename.substring(0, filename.length() - SUFFIX.length()),
+                        mustacheCompiler.compile(reader));
+            }
+        }
+        return Map.copyOf(compiled);
+    }
+
+    // Development only: recompile when a template file changes on disk (not available when running from a jar)
+    private void startWatching() throws IOException {
+        Resource directory = new PathMatchingResourcePatternResolver().getResource("classpath:/templates/");
+        if (!directory.isFile()) {
+            log.warn("Template watching requested but templates are not on the file system; ignoring");
+            return;
+        }
+
+        Path path = directory.getFile().toPath();
+        watchService = FileSystems.getDefault().newWatchService();
+        path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(this::watchLoop, "template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for template changes", path);
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                try {
+                    templates = compileAll();
+                    log.info("Recompiled {} templates", templates.size());
+                } catch (Exception e) {
+                    log.warn("Template recompilation failed; keeping previous templates", e);
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+}
@@ -1,36 +1,64 @@
 package com.expensetracker.service;
 
-import com.samskivert.mustache.Mustache;
+import com.expensetracker.dto.BudgetState;
+import com.expensetracker.dto.BudgetStatus;
 import com.samskivert.mustache.Template;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.time.Month;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class TemplateService {
 
-    private final Mustache.Compiler mustacheCompiler;
+    // Writers larger than this are dropped after use instead of being kept for the thread
+    private static final int MAX_POOLED_WRITER_CHARS = 16 * 1024;
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy");
+
+    private static final ThreadLocal<StringWriter> WRITERS = ThreadLocal.withInitial(() -> new StringWriter(512));
+
+    private final TemplateRegistry templateRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
 
     private String renderTemplate(String templateName, Map<String, Object> context) {
+        long start = System.nanoTime();
         try {
-            Reader reader = new InputStreamReader(
-                    getClass().getResourceAsStream("/templates/" + templateName + ".mustache"));
-            Template template = mustacheCompiler.compile(reader);
-            return template.execute(context);
+            Template template = templateRegistry.get(templateName);
+            StringWriter writer = WRITERS.get();
+            writer.getBuffer().setLength(0);
+            template.execute(context, writer);
+            String rendered = writer.toString();
+            if (writer.getBuffer().capacity() > MAX_POOLED_WRITER_CHARS) {
+                WRITERS.remove();
+            }
+            renderTimer(templateName).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return rendered;
         } catch (Exception e) {
             throw new RuntimeException("Error rendering template: " + e.getMessage());
         }
     }
 
+    private Timer renderTimer(String templateName) {
+        return renderTimers.computeIfAbsent(templateName, name -> Timer.builder("templates.render")
+                .description("Mustache template render time")
+                .tag("template", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
     public String generateWelcomeMessage(String userName) {
         Map<String, Object> context = new HashMap<>();
         context.put("userName", userName);
@@ -70,6 +98,21 @@ public class TemplateService {
         }
     }
 
+    public String generateBudgetMessage(BudgetStatus status) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("categoryName", status.getCategoryName() != null ? status.getCategoryName() : "category");
+        context.put("month", MONTH_FORMAT.format(status.getMonth()));
+        context.put("limit", status.getLimit().toString());
+        context.put("spent", status.getSpent().toString());
+        context.put("remaining", status.getRemaining().toString());
+        context.put("overBy", status.getRemaining().negate().toString());
+        context.put("percentUsed", status.getPercentUsed());
+        context.put("exceeded", status.getState() == BudgetState.EXCEEDED);
+        context.put("nearingLimit", status.getState() == BudgetState.NEARING_LIMIT);
+        context.put("onTrack", status.getState() == BudgetState.ON_TRACK);
+        return renderTemplate("budget-status", context);
+    }
+
     public String generateMonthlyReport(String userName, Month month, int year,
                                        BigDecimal totalIncome, BigDecimal totalExpense,
                                        BigDecimal balance, Map<String, BigDecimal> categoryBreakdown,
@@ -1,40 +1,343 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.BatchAction;
+import com.expensetracker.dto.BatchItemResult;
+import com.expensetracker.dto.BatchOperation;
+import com.expensetracker.dto.CategoryTotal;
+import com.expensetracker.dto.TimeSeries;
+import com.expensetracker.dto.TimeSeriesInterval;
+import com.expensetracker.dto.TimeSeriesPoint;
+import com.expensetracker.dto.TransactionCursor;
+import com.expensetracker.dto.TransactionPage;
 import com.expensetracker.dto.TransactionRequest;
+import com.expensetracker.dto.TransactionRow;
 import com.expensetracker.dto.TransactionSummary;
-import com.expensetracker.model.Category;
+import com.expensetracker.dto.TypeTotal;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
-import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.repository.TransactionSpecifications;
+import com.expensetracker.service.CacheInvalidationService.Scope;
+import com.expensetracker.service.analytics.AnalyticsCache;
+import com.expensetracker.service.analytics.RangeTotals;
+import com.expensetracker.service.search.SearchTerms;
+import com.expensetracker.service.search.TransactionSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Date;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    // Must match the expression behind idx_transactions_user_search
+    private static final String SEARCH_DOCUMENT = "to_tsvector('simple', coalesce(t.description, ''))";
+    private static final int MAX_SEARCH_TERMS = 8;
+
     private final TransactionRepository transactionRepository;
-    private final CategoryRepository categoryRepository;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
+    private final EntityManager entityManager;
+    private final CategoryCache categoryCache;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionSearchIndex searchIndex;
+    private final SyncService syncService;
+    private final CacheInvalidationService cacheInvalidation;
 
+    @Transactional(readOnly = true)
     public List<Transaction> getAllTransactionsByUser(UUID userId) {
         return transactionRepository.findByUserIdOrderByDateDesc(userId);
     }
 
+    // Same filters and order as getTransactionsByFilters, selecting only the columns clients display
+    @Transactional(readOnly = true)
+    public List<TransactionRow> getTransactionRows(
+            UUID userId, TransactionType type, UUID categoryId,
+            LocalDate startDate, LocalDate endDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionRow> query = cb.createQuery(TransactionRow.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        query.select(cb.construct(TransactionRow.class,
+                        root.get("id"), root.get("categoryId"), root.get("amount"),
+                        root.get("type"), root.get("description"), root.get("date")))
+                .where(TransactionSpecifications.filters(userId, type, categoryId, startDate, endDate)
+                        .toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("date")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByFilters(
             UUID userId, TransactionType type, UUID categoryId,
             LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByFilters(userId, type, categoryId, startDate, endDate);
+        return transactionRepository.findAll(
+                TransactionSpecifications.filters(userId, type, categoryId, startDate, endDate),
+                Sort.by(Sort.Direction.DESC, "date"));
+    }
+
+    // Description search, best match first and newest first among equals. Every term is a prefix, so "ub"
+    // finds "Uber"; terms matching a whole word rank above prefix-only matches. Other criteria only narrow
+    // the matches.
+    public List<Transaction> searchTransactions(
+            UUID userId, String text, TransactionType type, UUID categoryId,
+            LocalDate startDate, LocalDate endDate, int limit) {
+        List<String> terms = SearchTerms.of(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        terms = terms.subList(0, Math.min(terms.size(), MAX_SEARCH_TERMS));
+
+        List<UUID> ids = searchIndex.search(userId, terms, type, categoryId, startDate, endDate, limit);
+        if (ids != null) {
+            Map<UUID, Transaction> found = transactionRepository.findByIdInAndUserId(ids, userId).stream()
+                    .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+            // A match deleted since the index was read is simply left out
+            return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+        }
+        return searchTable(userId, terms, type, categoryId, startDate, endDate, limit);
     }
 
+    // Terms go in as letters and digits only, so user input never reaches the tsquery parser as syntax.
+    // ts_rank against the whole-word form of the query gives the same order as the in-memory index.
+    @SuppressWarnings("unchecked")
+    private List<Transaction> searchTable(UUID userId, List<String> terms, TransactionType type, UUID categoryId,
+                                          LocalDate startDate, LocalDate endDate, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT t.* FROM transactions t, ")
+                .append("to_tsquery('simple', :prefixes) q, to_tsquery('simple', :words) w ")
+                .append("WHERE t.user_id = :userId AND ").append(SEARCH_DOCUMENT).append(" @@ q");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("prefixes", terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & ")));
+        parameters.put("words", String.join(" | ", terms));
+        parameters.put("userId", userId);
+        if (type != null) {
+            sql.append(" AND t.type = :type");
+            parameters.put("type", type.name());
+        }
+        if (categoryId != null) {
+            sql.append(" AND t.category_id = :categoryId");
+            parameters.put("categoryId", categoryId);
+        }
+        if (startDate != null) {
+            sql.append(" AND t.date >= :startDate");
+            parameters.put("startDate", startDate);
+        }
+        if (endDate != null) {
+            sql.append(" AND t.date <= :endDate");
+            parameters.put("endDate", endDate);
+        }
+        sql.append(" ORDER BY ts_rank(").append(SEARCH_DOCUMENT).append(", w) DESC, t.date DESC, t.id");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Transaction.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    // Applies every operation in one transaction; items that fail validation or ownership are reported and skipped
+    @Transactional
+    public List<BatchItemResult> applyBatch(List<BatchOperation> operations, UUID userId) {
+        Set<UUID> referencedIds = new HashSet<>();
+        for (BatchOperation operation : operations) {
+            if (operation.getAction() != BatchAction.CREATE && operation.getId() != null) {
+                referencedIds.add(operation.getId());
+            }
+        }
+        Map<UUID, Transaction> owned = referencedIds.isEmpty()
+                ? Map.of()
+                : transactionRepository.findByIdInAndUserId(referencedIds, userId).stream()
+                        .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(operations.size());
+        List<Transaction> created = new ArrayList<>();
+        List<Transaction> deleted = new ArrayList<>();
+        Set<UUID> deletedIds = new HashSet<>();
+        Map<UUID, Transaction> updated = new HashMap<>();
+        List<Transaction> previousStates = new ArrayList<>();
+        List<Integer> createIndexes = new ArrayList<>();
+
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperation operation = operations.get(index);
+            BatchAction action = operation.getAction();
+            if (action == null) {
+                results.add(BatchItemResult.failed(index, null, operation.getId(), "Missing action"));
+                continue;
+            }
+
+            if (action == BatchAction.CREATE) {
+                String error = validate(operation.getTransaction());
+                if (error != null) {
+                    results.add(BatchItemResult.failed(index, action, null, error));
+                    continue;
+                }
+                Transaction transaction = new Transaction();
+                transaction.setUserId(userId);
+                applyRequest(transaction, operation.getTransaction());
+                created.add(transaction);
+                createIndexes.add(index);
+                results.add(BatchItemResult.ok(index, action, null));
+                continue;
+            }
+
+            Transaction transaction = operation.getId() != null ? owned.get(operation.getId()) : null;
+            if (transaction == null) {
+                results.add(BatchItemResult.failed(index, action, operation.getId(), "Transaction not found"));
+                continue;
+            }
+            if (deletedIds.contains(transaction.getId())) {
+                results.add(BatchItemResult.failed(index, action, operation.getId(),
+                        "Transaction already deleted in this batch"));
+                continue;
+            }
+
+            if (action == BatchAction.UPDATE) {
+                String error = validate(operation.getTransaction());
+                if (error != null) {
+                    results.add(BatchItemResult.failed(index, action, operation.getId(), error));
+                    continue;
+                }
+                if (!updated.containsKey(transaction.getId())) {
+                    previousStates.add(snapshot(transaction));
+                }
+                applyRequest(transaction, operation.getTransaction());
+                updated.put(transaction.getId(), transaction);
+            } else {
+                if (!updated.containsKey(transaction.getId())) {
+                    previousStates.add(snapshot(transaction));
+                }
+                updated.remove(transaction.getId());
+                deleted.add(transaction);
+                deletedIds.add(transaction.getId());
+            }
+            results.add(BatchItemResult.ok(index, action, transaction.getId()));
+        }
+
+        rollupService.revertAll(previousStates);
+        transactionRepository.saveAll(created);
+        if (!deleted.isEmpty()) {
+            transactionRepository.deleteAllInBatch(deleted);
+            syncService.recordDeletions(deleted);
+        }
+        List<Transaction> current = new ArrayList<>(created);
+        current.addAll(updated.values());
+        rollupService.recordAll(current);
+
+        for (int i = 0; i < created.size(); i++) {
+            results.get(createIndexes.get(i)).setId(created.get(i).getId());
+        }
+        if (!previousStates.isEmpty() || !created.isEmpty()) {
+            analyticsCache.evict(userId);
+            searchIndex.evict(userId);
+            dataVersionService.bump(userId);
+            cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
+        }
+        return results;
+    }
+
+    private static String validate(TransactionRequest request) {
+        if (request == null) {
+            return "Missing transaction";
+        }
+        if (request.getAmount() == null || request.getAmount().signum() < 0) {
+            return "Amount must be zero or positive";
+        }
+        if (request.getType() == null) {
+            return "Missing type";
+        }
+        return null;
+    }
+
+    private static void applyRequest(Transaction transaction, TransactionRequest request) {
+        transaction.setCategoryId(request.getCategoryId());
+        transaction.setAmount(request.getAmount());
+        transaction.setType(request.getType());
+        transaction.setDescription(request.getDescription());
+        if (request.getDate() != null) {
+            transaction.setDate(request.getDate());
+        } else if (transaction.getDate() == null) {
+            transaction.setDate(LocalDate.now());
+        }
+    }
+
+    private static Transaction snapshot(Transaction transaction) {
+        Transaction copy = new Transaction();
+        copy.setId(transaction.getId());
+        copy.setUserId(transaction.getUserId());
+        copy.setCategoryId(transaction.getCategoryId());
+        copy.setAmount(transaction.getAmount());
+        copy.setType(transaction.getType());
+        copy.setDescription(transaction.getDescription());
+        copy.setDate(transaction.getDate());
+        return copy;
+    }
+
+    // Walks the rows through a database cursor, detaching each one so the persistence context stays empty
+    @Transactional(readOnly = true)
+    public void forEachTransaction(UUID userId, LocalDate startDate, LocalDate endDate,
+                                   Consumer<Transaction> action) {
+        try (Stream<Transaction> transactions =
+                     transactionRepository.streamByDateRange(userId, startDate, endDate)) {
+            transactions.forEach(transaction -> {
+                action.accept(transaction);
+                entityManager.detach(transaction);
+            });
+        }
+    }
+
+    // The page and its total come from the same snapshot
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(
+            UUID userId, TransactionType type, UUID categoryId,
+            LocalDate startDate, LocalDate endDate,
+            String cursor, int limit, boolean includeTotal) {
+        TransactionCursor after = cursor != null && !cursor.isBlank() ? TransactionCursor.decode(cursor) : null;
+
+        Specification<Transaction> filters =
+                TransactionSpecifications.filters(userId, type, categoryId, startDate, endDate);
+        Specification<Transaction> pageFilters =
+                after != null ? filters.and(TransactionSpecifications.after(after)) : filters;
+
+        // Fetch one extra row to learn whether another page exists
+        List<Transaction> rows = transactionRepository.findBy(pageFilters, query -> query
+                .sortBy(TransactionSpecifications.NEWEST_FIRST)
+                .limit(limit + 1)
+                .all());
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = TransactionCursor.after(rows.get(limit - 1)).encode();
+        }
+
+        Long totalCount = includeTotal
+                ? transactionRepository.count(filters)
+                : null;
+
+        return new TransactionPage(rows, nextCursor, totalCount);
+    }
+
+    @Transactional(readOnly = true)
     public Transaction getTransactionById(UUID id, UUID userId) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
@@ -56,12 +359,20 @@ public class TransactionService {
         transaction.setDescription(request.getDescription());
         transaction.setDate(request.getDate() != null ? request.getDate() : LocalDate.now());
         
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        rollupService.record(saved);
+        analyticsCache.recordCreated(saved);
+        searchIndex.recordCreated(saved);
+        dataVersionService.bump(userId);
+        cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
+        return saved;
     }
 
     @Transactional
     public Transaction updateTransaction(UUID id, TransactionRequest request, UUID userId) {
         Transaction transaction = getTransactionById(id, userId);
+        Transaction previous = snapshot(transaction);
+        rollupService.revert(transaction);
         
         transaction.setCategoryId(request.getCategoryId());
         transaction.setAmount(request.getAmount());
@@ -69,45 +380,151 @@ public class TransactionService {
         transaction.setDescription(request.getDescription());
         transaction.setDate(request.getDate());
         
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        rollupService.record(saved);
+        analyticsCache.recordUpdated(previous, saved);
+        searchIndex.recordUpdated(previous, saved);
+        dataVersionService.bump(userId);
+        cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
+        return saved;
     }
 
     @Transactional
     public void deleteTransaction(UUID id, UUID userId) {
         Transaction transaction = getTransactionById(id, userId);
+        rollupService.revert(transaction);
         transactionRepository.delete(transaction);
+        syncService.recordDeletion(transaction);
+        analyticsCache.recordDeleted(transaction);
+        searchIndex.recordDeleted(transaction);
+        dataVersionService.bump(userId);
+        cacheInvalidation.publish(userId, Scope.TRANSACTIONS);
     }
 
+    @Transactional(readOnly = true)
     public TransactionSummary getTransactionSummary(UUID userId, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions;
-        
-        if (startDate != null && endDate != null) {
-            transactions = transactionRepository.findByUserIdAndDateBetweenOrderByDateDesc(
-                    userId, startDate, endDate);
-        } else {
-            transactions = transactionRepository.findByUserIdOrderByDateDesc(userId);
+        if (startDate == null || endDate == null) {
+            return summarizeRange(userId, null, null);
+        }
+        return summarizeRange(userId, startDate, endDate);
+    }
+
+    // Buckets come from one scan over the cached columns when loaded, otherwise from one grouped query
+    @Transactional(readOnly = true)
+    public TimeSeries getTimeSeries(UUID userId, LocalDate startDate, LocalDate endDate,
+                                    TimeSeriesInterval interval, boolean byCategory) {
+        BigDecimal openingBalance = openingBalance(userId, startDate);
+        Map<UUID, String> categoryNames = byCategory ? categoryCache.getNameLookup(userId) : null;
+
+        List<RangeTotals> cached = analyticsCache.summarizeBuckets(userId, startDate, endDate, interval);
+        if (cached != null) {
+            List<TimeSeriesPoint> points = new ArrayList<>(cached.size());
+            BigDecimal balance = openingBalance;
+            for (RangeTotals bucket : cached) {
+                balance = balance.add(bucket.getIncome()).subtract(bucket.getExpense());
+                Map<String, BigDecimal> categories = null;
+                if (byCategory) {
+                    Map<String, BigDecimal> split = new HashMap<>();
+                    bucket.forEachCategory((categoryId, total) -> mergeCategory(split, categoryNames, categoryId, total));
+                    categories = split;
+                }
+                points.add(new TimeSeriesPoint(bucket.getStart(), bucket.getIncome(), bucket.getExpense(),
+                        balance, categories));
+            }
+            return new TimeSeries(interval, openingBalance, points);
+        }
+
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        if (!byCategory) {
+            for (Object[] row : transactionRepository.sumByPeriod(userId, interval.sqlUnit(), startDate, endDate)) {
+                points.add(new TimeSeriesPoint(toLocalDate(row[0]), (BigDecimal) row[1], (BigDecimal) row[2],
+                        openingBalance.add((BigDecimal) row[3]), null));
+            }
+            return new TimeSeries(interval, openingBalance, points);
+        }
+
+        // Rows arrive ordered by period with one row per category, so each period is a run of rows
+        TimeSeriesPoint point = null;
+        for (Object[] row : transactionRepository.sumByPeriodAndCategory(
+                userId, interval.sqlUnit(), startDate, endDate)) {
+            LocalDate periodStart = toLocalDate(row[0]);
+            if (point == null || !point.getPeriodStart().equals(periodStart)) {
+                point = new TimeSeriesPoint(periodStart, BigDecimal.ZERO, BigDecimal.ZERO, null, new HashMap<>());
+                points.add(point);
+            }
+            BigDecimal income = (BigDecimal) row[2];
+            BigDecimal expense = (BigDecimal) row[3];
+            point.setIncome(point.getIncome().add(income));
+            point.setExpense(point.getExpense().add(expense));
+            if (row[1] != null) {
+                mergeCategory(point.getCategories(), categoryNames, (UUID) row[1], income.add(expense));
+            }
+        }
+        BigDecimal balance = openingBalance;
+        for (TimeSeriesPoint each : points) {
+            balance = balance.add(each.getIncome()).subtract(each.getExpense());
+            each.setBalance(balance);
+        }
+        return new TimeSeries(interval, openingBalance, points);
+    }
+
+    private BigDecimal openingBalance(UUID userId, LocalDate startDate) {
+        if (startDate == null) {
+            return BigDecimal.ZERO;
+        }
+        LocalDate before = startDate.minusDays(1);
+        RangeTotals cached = analyticsCache.summarize(userId, null, before);
+        if (cached != null) {
+            return cached.getIncome().subtract(cached.getExpense());
+        }
+        BigDecimal balance = BigDecimal.ZERO;
+        for (TypeTotal typeTotal : rollupService.sumByType(userId, null, before)) {
+            balance = typeTotal.getType() == TransactionType.INCOME
+                    ? balance.add(typeTotal.getTotal())
+                    : balance.subtract(typeTotal.getTotal());
+        }
+        return balance;
+    }
+
+    private static void mergeCategory(Map<String, BigDecimal> categories, Map<UUID, String> categoryNames,
+                                      UUID categoryId, BigDecimal total) {
+        String categoryName = categoryNames.get(categoryId);
+        if (categoryName != null) {
+            categories.merge(categoryName, total, BigDecimal::add);
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    // Unlike getTransactionSummary, an open-ended range keeps whichever bound was supplied
+    @Transactional(readOnly = true)
+    public TransactionSummary summarizeRange(UUID userId, LocalDate startDate, LocalDate endDate) {
+        RangeTotals cached = analyticsCache.summarize(userId, startDate, endDate);
+        if (cached != null) {
+            return summarize(userId, cached);
         }
 
         BigDecimal totalIncome = BigDecimal.ZERO;
         BigDecimal totalExpense = BigDecimal.ZERO;
-        Map<String, BigDecimal> categoryBreakdown = new HashMap<>();
+        long transactionCount = 0;
 
-        for (Transaction transaction : transactions) {
-            if (transaction.getType() == TransactionType.INCOME) {
-                totalIncome = totalIncome.add(transaction.getAmount());
+        for (TypeTotal typeTotal : rollupService.sumByType(userId, startDate, endDate)) {
+            if (typeTotal.getType() == TransactionType.INCOME) {
+                totalIncome = totalIncome.add(typeTotal.getTotal());
             } else {
-                totalExpense = totalExpense.add(transaction.getAmount());
+                totalExpense = totalExpense.add(typeTotal.getTotal());
             }
+            transactionCount += typeTotal.getCount();
+        }
 
-            if (transaction.getCategoryId() != null) {
-                Category category = categoryRepository.findById(transaction.getCategoryId())
-                        .orElse(null);
-                if (category != null) {
-                    String categoryName = category.getName();
-                    categoryBreakdown.put(categoryName, 
-                            categoryBreakdown.getOrDefault(categoryName, BigDecimal.ZERO)
-                                    .add(transaction.getAmount()));
-                }
+        Map<UUID, String> categoryNames = categoryCache.getNameLookup(userId);
+        Map<String, BigDecimal> categoryBreakdown = new HashMap<>();
+        for (CategoryTotal categoryTotal : rollupService.sumByCategory(userId, startDate, endDate)) {
+            String categoryName = categoryNames.get(categoryTotal.getCategoryId());
+            if (categoryName != null) {
+                categoryBreakdown.merge(categoryName, categoryTotal.getTotal(), BigDecimal::add);
             }
         }
 
@@ -118,8 +535,21 @@ public class TransactionService {
         summary.setTotalExpense(totalExpense);
         summary.setBalance(balance);
         summary.setCategoryBreakdown(categoryBreakdown);
-        summary.setTransactionCount(transactions.size());
+        summary.setTransactionCount((int) transactionCount);
 
         return summary;
     }
+
+    private TransactionSummary summarize(UUID userId, RangeTotals totals) {
+        Map<UUID, String> categoryNames = categoryCache.getNameLookup(userId);
+        Map<String, BigDecimal> categoryBreakdown = new HashMap<>();
+        totals.forEachCategory((categoryId, total) -> {
+            String categoryName = categoryNames.get(categoryId);
+            if (categoryName != null) {
+                categoryBreakdown.merge(categoryName, total, BigDecimal::add);
+            }
+        });
+        return new TransactionSummary(totals.getIncome(), totals.getExpense(),
+                totals.getIncome().subtract(totals.getExpense()), categoryBreakdown, totals.getTransactionCount());
+    }
 }
@@ -0,0 +1,143 @@
+package com.expensetracker.service.analytics;
+
+import com.expensetracker.config.ReplicaRoutingDataSource;
+import com.expensetracker.dto.TimeSeriesInterval;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.cache.UserStateCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Holds recently active users' transactions as primitive columns so summaries are a scan over arrays
+// instead of a database round trip. Columns load lazily on first read, follow committed writes through
+// deltas, and are evicted by size once their combined weight passes analytics.cache.max-mb.
+@Component
+public class AnalyticsCache {
+
+    private final boolean enabled;
+    private final UserStateCache<UserColumns> cache;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate loadTransaction;
+
+    private record Row(long amount, int day, TransactionType type, UUID categoryId) {
+        static Row of(Transaction transaction) {
+            return new Row(UserColumns.minorUnits(transaction.getAmount()),
+                    UserColumns.epochDay(transaction.getDate()), transaction.getType(), transaction.getCategoryId());
+        }
+
+        void addTo(UserColumns columns) {
+            columns.add(amount, day, type, categoryId);
+        }
+
+        boolean removeFrom(UserColumns columns) {
+            return columns.remove(amount, day, type, categoryId);
+        }
+    }
+
+    public AnalyticsCache(TransactionRepository transactionRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${analytics.cache.enabled:false}") boolean enabled,
+                          @Value("${analytics.cache.max-mb:256}") long maxMegabytes) {
+        this.enabled = enabled;
+        this.transactionRepository = transactionRepository;
+        // Deltas are applied to whatever is loaded, so a lagging baseline would stay wrong until evicted
+        this.loadTransaction = ReplicaRoutingDataSource.primaryTransaction(transactionManager);
+        this.cache = new UserStateCache<>("analytics", maxMegabytes * 1024 * 1024, meterRegistry, this::load);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Null when the cache is off or the columns cannot be loaded right now; callers then query the database
+    public RangeTotals summarize(UUID userId, LocalDate startDate, LocalDate endDate) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.read(userId, columns -> columns.summarize(fromDay(startDate), toDay(endDate)));
+    }
+
+    // One entry per non-empty bucket, oldest first; null under the same conditions as summarize
+    public List<RangeTotals> summarizeBuckets(UUID userId, LocalDate startDate, LocalDate endDate,
+                                              TimeSeriesInterval interval) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.read(userId, columns -> columns.summarizeBuckets(fromDay(startDate), toDay(endDate), interval));
+    }
+
+    public void recordCreated(Transaction transaction) {
+        if (enabled) {
+            Row row = Row.of(transaction);
+            cache.change(transaction.getUserId(), columns -> {
+                row.addTo(columns);
+                return true;
+            });
+        }
+    }
+
+    // previous is a snapshot taken before the entity was modified
+    public void recordUpdated(Transaction previous, Transaction current) {
+        if (enabled) {
+            Row before = Row.of(previous);
+            Row after = Row.of(current);
+            cache.change(current.getUserId(), columns -> {
+                if (!before.removeFrom(columns)) {
+                    return false;
+                }
+                after.addTo(columns);
+                return true;
+            });
+        }
+    }
+
+    public void recordDeleted(Transaction transaction) {
+        if (enabled) {
+            Row row = Row.of(transaction);
+            cache.change(transaction.getUserId(), row::removeFrom);
+        }
+    }
+
+    // For bulk writes: drops the user's columns so the next read reloads them
+    public void evict(UUID userId) {
+        if (enabled) {
+            cache.evict(userId);
+        }
+    }
+
+    public void evictAll() {
+        if (enabled) {
+            cache.evictAll();
+        }
+    }
+
+    private UserColumns load(UUID userId) {
+        return loadTransaction.execute(status -> {
+            UserColumns loaded = new UserColumns();
+            try (Stream<Object[]> rows = transactionRepository.streamColumns(userId)) {
+                rows.forEach(row -> loaded.append(UserColumns.minorUnits((BigDecimal) row[0]),
+                        UserColumns.epochDay((LocalDate) row[1]), (TransactionType) row[2], (UUID) row[3]));
+            }
+            return loaded;
+        });
+    }
+
+    private static int fromDay(LocalDate startDate) {
+        return startDate != null ? UserColumns.epochDay(startDate) : Integer.MIN_VALUE;
+    }
+
+    private static int toDay(LocalDate endDate) {
+        return endDate != null ? UserColumns.epochDay(endDate) : Integer.MAX_VALUE;
+    }
+}
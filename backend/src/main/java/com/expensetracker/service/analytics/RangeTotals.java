@@ -0,0 +1,62 @@
+package com.expensetracker.service.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+// Result of one scan over a user's columns; amounts are accumulated in minor units
+public final class RangeTotals {
+
+    private final UUID[] categoryIds;
+    final long[] categoryTotals;
+    final int[] categoryCounts;
+    private long income;
+    private long expense;
+    private int incomeCount;
+    private int expenseCount;
+    private LocalDate start;
+
+    RangeTotals(UUID[] categoryIds) {
+        this.categoryIds = categoryIds;
+        this.categoryTotals = new long[categoryIds.length];
+        this.categoryCounts = new int[categoryIds.length];
+    }
+
+    void setTypeTotals(long income, int incomeCount, long expense, int expenseCount) {
+        this.income = income;
+        this.incomeCount = incomeCount;
+        this.expense = expense;
+        this.expenseCount = expenseCount;
+    }
+
+    void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    // First day of the bucket; null for a plain range summary
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public BigDecimal getIncome() {
+        return UserColumns.fromMinorUnits(income);
+    }
+
+    public BigDecimal getExpense() {
+        return UserColumns.fromMinorUnits(expense);
+    }
+
+    public int getTransactionCount() {
+        return incomeCount + expenseCount;
+    }
+
+    // Categories with at least one row in the range, uncategorized rows excluded
+    public void forEachCategory(BiConsumer<UUID, BigDecimal> action) {
+        for (int i = 0; i < categoryIds.length; i++) {
+            if (categoryCounts[i] > 0) {
+                action.accept(categoryIds[i], UserColumns.fromMinorUnits(categoryTotals[i]));
+            }
+        }
+    }
+}
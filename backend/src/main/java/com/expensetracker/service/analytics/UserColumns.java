@@ -0,0 +1,214 @@
+package com.expensetracker.service.analytics;
+
+import com.expensetracker.dto.TimeSeriesInterval;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.cache.UserStateCache;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One user's transactions as parallel primitive columns, kept sorted by date so any date range is a
+// contiguous slice. Rows carry no id: two rows with the same values are interchangeable for analytics.
+final class UserColumns implements UserStateCache.State {
+
+    static final int UNCATEGORIZED = -1;
+
+    private static final byte INCOME = (byte) TransactionType.INCOME.ordinal();
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Dictionary behind the category column
+    private UUID[] categoryIds = new UUID[8];
+    private int categoryCount;
+    private final Map<UUID, Integer> categoryOrdinals = new HashMap<>();
+
+    static long minorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    static int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public ReadWriteLock lock() {
+        return lock;
+    }
+
+    @Override
+    public int weight() {
+        return 128 + amounts.length * (Long.BYTES + Integer.BYTES + 1 + Integer.BYTES)
+                + categoryIds.length * 64;
+    }
+
+    // Loading path: rows arrive in date order
+    void append(long amount, int day, TransactionType type, UUID categoryId) {
+        ensureCapacity(size + 1);
+        set(size++, amount, day, type, categoryId);
+    }
+
+    void add(long amount, int day, TransactionType type, UUID categoryId) {
+        ensureCapacity(size + 1);
+        int index = upperBound(day);
+        shift(index, index + 1, size - index);
+        size++;
+        set(index, amount, day, type, categoryId);
+    }
+
+    // False when no matching row exists, meaning the columns no longer reflect the table
+    boolean remove(long amount, int day, TransactionType type, UUID categoryId) {
+        Integer category = categoryId != null ? categoryOrdinals.get(categoryId) : Integer.valueOf(UNCATEGORIZED);
+        if (category == null) {
+            return false;
+        }
+        byte typeOrdinal = (byte) type.ordinal();
+        for (int i = lowerBound(day), end = upperBound(day); i < end; i++) {
+            if (amounts[i] == amount && types[i] == typeOrdinal && categories[i] == category) {
+                shift(i + 1, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Callers hold the read lock for this and summarizeBuckets
+    RangeTotals summarize(int fromDay, int toDay) {
+        return sum(lowerBound(fromDay), upperBound(toDay));
+    }
+
+    // One pass over the range in date order, closing a bucket where the next row falls past its end.
+    // Allocation is per bucket, never per row, and buckets without rows are skipped.
+    List<RangeTotals> summarizeBuckets(int fromDay, int toDay, TimeSeriesInterval interval) {
+        List<RangeTotals> buckets = new ArrayList<>();
+        int end = upperBound(toDay);
+        for (int i = lowerBound(fromDay); i < end; ) {
+            LocalDate bucketStart = interval.truncate(LocalDate.ofEpochDay(days[i]));
+            int next = Math.min(lowerBound(epochDay(interval.next(bucketStart))), end);
+            RangeTotals totals = sum(i, next);
+            totals.setStart(bucketStart);
+            buckets.add(totals);
+            i = next;
+        }
+        return buckets;
+    }
+
+    private RangeTotals sum(int from, int to) {
+        RangeTotals totals = new RangeTotals(Arrays.copyOf(categoryIds, categoryCount));
+        long[] categoryTotals = totals.categoryTotals;
+        int[] categoryCounts = totals.categoryCounts;
+        long income = 0;
+        long expense = 0;
+        int incomeCount = 0;
+        int expenseCount = 0;
+        for (int i = from; i < to; i++) {
+            long amount = amounts[i];
+            if (types[i] == INCOME) {
+                income += amount;
+                incomeCount++;
+            } else {
+                expense += amount;
+                expenseCount++;
+            }
+            int category = categories[i];
+            if (category != UNCATEGORIZED) {
+                categoryTotals[category] += amount;
+                categoryCounts[category]++;
+            }
+        }
+        totals.setTypeTotals(income, incomeCount, expense, expenseCount);
+        return totals;
+    }
+
+    private void set(int index, long amount, int day, TransactionType type, UUID categoryId) {
+        amounts[index] = amount;
+        days[index] = day;
+        types[index] = (byte) type.ordinal();
+        categories[index] = categoryId != null ? ordinal(categoryId) : UNCATEGORIZED;
+    }
+
+    private int ordinal(UUID categoryId) {
+        Integer ordinal = categoryOrdinals.get(categoryId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        categoryOrdinals.put(categoryId, categoryCount);
+        return categoryCount++;
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(amounts, from, amounts, to, length);
+        System.arraycopy(days, from, days, to, length);
+        System.arraycopy(types, from, types, to, length);
+        System.arraycopy(categories, from, categories, to, length);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= amounts.length) {
+            return;
+        }
+        int grown = Math.max(capacity, amounts.length + (amounts.length >> 1));
+        amounts = Arrays.copyOf(amounts, grown);
+        days = Arrays.copyOf(days, grown);
+        types = Arrays.copyOf(types, grown);
+        categories = Arrays.copyOf(categories, grown);
+    }
+
+    // First row on or after day
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First row after day
+    private int upperBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
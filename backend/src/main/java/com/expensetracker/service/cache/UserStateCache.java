@@ -0,0 +1,175 @@
+package com.expensetracker.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Per-user state derived from the transactions table and held in memory. Entries load lazily on first read,
+// follow committed writes through deltas, and are evicted by size once their combined weight passes the budget.
+public final class UserStateCache<V extends UserStateCache.State> {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStateCache.class);
+
+    private static final int FENCE_STRIPES = 256;
+
+    public interface State {
+        // Approximate heap footprint, used as the entry's weight against the budget
+        int weight();
+
+        // Readers hold the read lock, deltas the write lock
+        ReadWriteLock lock();
+    }
+
+    private final String name;
+    private final Cache<UUID, V> cache;
+    private final Function<UUID, V> loader;
+    private final Fence[] fences = new Fence[FENCE_STRIPES];
+
+    // Per stripe of users: sequence moves on every write, pending counts writes not yet completed.
+    // A load only publishes its state if neither says a write could have slipped past it.
+    private static final class Fence {
+        private long sequence;
+        private int pending;
+    }
+
+    public UserStateCache(String name, long maxBytes, MeterRegistry meterRegistry, Function<UUID, V> loader) {
+        this.name = name;
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID userId, V state) -> state.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        for (int i = 0; i < FENCE_STRIPES; i++) {
+            fences[i] = new Fence();
+        }
+    }
+
+    // Runs the reader under the entry's read lock. Null when the state cannot be loaded right now.
+    public <R> R read(UUID userId, Function<V, R> reader) {
+        V state = cache.getIfPresent(userId);
+        if (state == null) {
+            state = load(userId);
+            if (state == null) {
+                return null;
+            }
+        }
+        state.lock().readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            state.lock().readLock().unlock();
+        }
+    }
+
+    // Applies the change once the surrounding transaction commits, or right away outside one. A change that
+    // returns false could not be applied cleanly and drops the entry instead.
+    public void change(UUID userId, Predicate<V> change) {
+        Fence fence = fence(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (fence) {
+                fence.sequence++;
+                apply(userId, change);
+            }
+            return;
+        }
+
+        synchronized (fence) {
+            fence.sequence++;
+            fence.pending++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (fence) {
+                    apply(userId, change);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (fence) {
+                    fence.pending--;
+                }
+            }
+        });
+    }
+
+    // For bulk writes: drops the user's entry so the next read reloads it
+    public void evict(UUID userId) {
+        cache.invalidate(userId);
+        change(userId, state -> false);
+    }
+
+    // Drops every entry. Moving every fence keeps loads already in flight from caching what they read.
+    public void evictAll() {
+        for (Fence fence : fences) {
+            synchronized (fence) {
+                fence.sequence++;
+            }
+        }
+        cache.invalidateAll();
+    }
+
+    private V load(UUID userId) {
+        Fence fence = fence(userId);
+        long sequence;
+        synchronized (fence) {
+            if (fence.pending > 0) {
+                return null;
+            }
+            sequence = fence.sequence;
+        }
+
+        V state = loader.apply(userId);
+
+        synchronized (fence) {
+            // A write started during the load: answer this read from the snapshot but don't keep it
+            if (fence.sequence != sequence || fence.pending > 0) {
+                log.debug("{} state for user {} raced a write; not caching", name, userId);
+                return state;
+            }
+            cache.put(userId, state);
+        }
+        return state;
+    }
+
+    // Caller holds the fence
+    private void apply(UUID userId, Predicate<V> change) {
+        V state = cache.getIfPresent(userId);
+        if (state == null) {
+            return;
+        }
+        boolean applied;
+        boolean resized;
+        state.lock().writeLock().lock();
+        try {
+            int weight = state.weight();
+            applied = change.test(state);
+            resized = state.weight() != weight;
+        } finally {
+            state.lock().writeLock().unlock();
+        }
+        if (!applied) {
+            cache.invalidate(userId);
+        } else if (resized) {
+            // Re-insert so the cache re-weighs the entry
+            cache.put(userId, state);
+        }
+    }
+
+    private Fence fence(UUID userId) {
+        return fences[Math.floorMod(userId.hashCode(), FENCE_STRIPES)];
+    }
+}
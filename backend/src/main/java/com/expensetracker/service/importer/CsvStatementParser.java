@@ -0,0 +1,110 @@
+package com.expensetracker.service.importer;
+
+import com.expensetracker.model.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Expects a header row with date and amount columns; type, category and description are optional.
+// Without a type column, negative amounts are expenses and positive amounts income.
+public class CsvStatementParser implements StatementParser {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int lineNumber;
+
+    public CsvStatementParser(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        lineNumber++;
+        if (header == null) {
+            throw new RuntimeException("CSV file is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+            throw new RuntimeException("CSV header must contain 'date' and 'amount' columns");
+        }
+    }
+
+    @Override
+    public ImportedRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        try {
+            List<String> fields = split(line);
+            BigDecimal amount = new BigDecimal(field(fields, "amount").replace(",", ""));
+            String typeValue = field(fields, "type");
+            TransactionType type;
+            if (typeValue != null && !typeValue.isBlank()) {
+                type = TransactionType.valueOf(typeValue.trim().toUpperCase(Locale.ROOT));
+            } else {
+                type = amount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+            }
+            return new ImportedRow(
+                    LocalDate.parse(field(fields, "date").trim()),
+                    type,
+                    amount.abs(),
+                    blankToNull(field(fields, "category")),
+                    blankToNull(field(fields, "description")));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid CSV row at line " + lineNumber + ": " + e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.service.importer;
+
+import com.expensetracker.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedRow {
+    private LocalDate date;
+    private TransactionType type;
+    private BigDecimal amount;
+    private String categoryName;
+    private String description;
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.service.importer;
+
+import com.expensetracker.model.TransactionType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Handles both SGML (OFX 1.x, unclosed leaf tags) and XML (OFX 2.x) statements by scanning tags
+// and collecting the leaf values found inside each <STMTTRN> block
+public class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Reader reader;
+    private final StringBuilder buffer = new StringBuilder();
+    private int pending = -1;
+
+    public OfxStatementParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportedRow next() throws IOException {
+        Map<String, String> fields = null;
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                fields = new HashMap<>();
+            } else if (tag.equals("/STMTTRN") && fields != null) {
+                return toRow(fields);
+            } else if (fields != null && !tag.startsWith("/")) {
+                String value = readText().trim();
+                if (!value.isEmpty()) {
+                    fields.put(tag, value);
+                }
+            }
+        }
+        return null;
+    }
+
+    private ImportedRow toRow(Map<String, String> fields) {
+        try {
+            BigDecimal amount = new BigDecimal(fields.get("TRNAMT"));
+            LocalDate date = LocalDate.parse(fields.get("DTPOSTED").substring(0, 8), OFX_DATE);
+            String description = fields.containsKey("NAME") ? fields.get("NAME") : fields.get("MEMO");
+            return new ImportedRow(
+                    date,
+                    amount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME,
+                    amount.abs(),
+                    null,
+                    description);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid OFX transaction " + fields.get("FITID") + ": " + e.getMessage());
+        }
+    }
+
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // Skip text outside the elements we care about
+        }
+        if (c == -1) {
+            return null;
+        }
+        buffer.setLength(0);
+        while ((c = read()) != -1 && c != '>') {
+            buffer.append((char) c);
+        }
+        return buffer.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private String readText() throws IOException {
+        buffer.setLength(0);
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            buffer.append((char) c);
+        }
+        if (c == '<') {
+            pending = c;
+        }
+        return unescape(buffer.toString());
+    }
+
+    private int read() throws IOException {
+        if (pending != -1) {
+            int c = pending;
+            pending = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.service.importer;
+
+import java.io.IOException;
+
+// Pull parser over an uploaded statement; only the current record is held in memory
+public interface StatementParser {
+
+    // Returns the next row, or null once the input is exhausted
+    ImportedRow next() throws IOException;
+}
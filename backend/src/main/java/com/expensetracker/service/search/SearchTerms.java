@@ -0,0 +1,27 @@
+package com.expensetracker.service.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Splits text into lowercase runs of letters and digits, close to what PostgreSQL's 'simple' configuration
+// produces. Both search paths use it, for documents and for queries, so they agree on what a word is.
+public final class SearchTerms {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTerms() {
+    }
+
+    // Distinct terms in order of first appearance
+    public static List<String> of(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.expensetracker.service.search;
+
+import com.expensetracker.config.ReplicaRoutingDataSource;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.repository.TransactionRepository;
+import com.expensetracker.service.cache.UserStateCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Keeps recently searched users' descriptions in an in-memory inverted index, so a search is a few posting
+// list walks instead of ranking every matching row in PostgreSQL. Indexes load on first search, follow
+// committed writes through deltas, and are evicted by size once they pass search.index.max-mb.
+@Component
+public class TransactionSearchIndex {
+
+    private final boolean enabled;
+    private final UserStateCache<UserSearchIndex> cache;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate loadTransaction;
+
+    private record Entry(UUID id, String description, int day, TransactionType type, UUID categoryId) {
+        static Entry of(Transaction transaction) {
+            return new Entry(transaction.getId(), transaction.getDescription(),
+                    (int) transaction.getDate().toEpochDay(), transaction.getType(), transaction.getCategoryId());
+        }
+
+        void addTo(UserSearchIndex index) {
+            index.add(id, description, day, type, categoryId);
+        }
+
+        boolean removeFrom(UserSearchIndex index) {
+            return index.remove(id, description);
+        }
+    }
+
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${search.index.enabled:false}") boolean enabled,
+                                  @Value("${search.index.max-mb:256}") long maxMegabytes) {
+        this.enabled = enabled;
+        this.transactionRepository = transactionRepository;
+        this.loadTransaction = ReplicaRoutingDataSource.primaryTransaction(transactionManager);
+        this.cache = new UserStateCache<>("search", maxMegabytes * 1024 * 1024, meterRegistry, this::load);
+    }
+
+    // Ids of the best matches, best first; null when the index is off or cannot be loaded right now,
+    // in which case callers query the database
+    public List<UUID> search(UUID userId, List<String> terms, TransactionType type, UUID categoryId,
+                             LocalDate startDate, LocalDate endDate, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        int fromDay = startDate != null ? (int) startDate.toEpochDay() : Integer.MIN_VALUE;
+        int toDay = endDate != null ? (int) endDate.toEpochDay() : Integer.MAX_VALUE;
+        return cache.read(userId, index -> index.search(terms, type, categoryId, fromDay, toDay, limit));
+    }
+
+    public void recordCreated(Transaction transaction) {
+        if (enabled) {
+            Entry entry = Entry.of(transaction);
+            cache.change(transaction.getUserId(), index -> {
+                entry.addTo(index);
+                return true;
+            });
+        }
+    }
+
+    // previous is a snapshot taken before the entity was modified
+    public void recordUpdated(Transaction previous, Transaction current) {
+        if (enabled) {
+            Entry before = Entry.of(previous);
+            Entry after = Entry.of(current);
+            cache.change(current.getUserId(), index -> {
+                if (!before.removeFrom(index)) {
+                    return false;
+                }
+                after.addTo(index);
+                return true;
+            });
+        }
+    }
+
+    public void recordDeleted(Transaction transaction) {
+        if (enabled) {
+            Entry entry = Entry.of(transaction);
+            cache.change(transaction.getUserId(), entry::removeFrom);
+        }
+    }
+
+    // For bulk writes: drops the user's index so the next search reloads it
+    public void evict(UUID userId) {
+        if (enabled) {
+            cache.evict(userId);
+        }
+    }
+
+    public void evictAll() {
+        if (enabled) {
+            cache.evictAll();
+        }
+    }
+
+    private UserSearchIndex load(UUID userId) {
+        return loadTransaction.execute(status -> {
+            UserSearchIndex loaded = new UserSearchIndex();
+            try (Stream<Object[]> rows = transactionRepository.streamSearchFields(userId)) {
+                rows.forEach(row -> loaded.add((UUID) row[0], (String) row[1],
+                        (int) ((LocalDate) row[2]).toEpochDay(), (TransactionType) row[3], (UUID) row[4]));
+            }
+            return loaded;
+        });
+    }
+}
@@ -0,0 +1,313 @@
+package com.expensetracker.service.search;
+
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.cache.UserStateCache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One user's inverted index over transaction descriptions. Each indexed transaction occupies a slot holding
+// its id and the columns search can filter on; every term maps to the ascending slots whose description
+// contains it. Transactions without any term are not indexed, since no query can match them.
+final class UserSearchIndex implements UserStateCache.State {
+
+    private static final int UNCATEGORIZED = -1;
+    private static final byte REMOVED = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    // Rough cost of a dictionary entry besides its slots: tree node, key string, posting object
+    private static final int TERM_OVERHEAD = 120;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private int size;
+    private int removed;
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private long postingBytes;
+
+    private UUID[] categoryIds = new UUID[8];
+    private int categoryCount;
+    private final Map<UUID, Integer> categoryOrdinals = new HashMap<>();
+
+    // Ascending slots, so removal is a binary search
+    private static final class Postings {
+        private int[] slots = new int[2];
+        private int size;
+    }
+
+    @Override
+    public ReadWriteLock lock() {
+        return lock;
+    }
+
+    @Override
+    public int weight() {
+        long bytes = 128 + (long) idHigh.length * (Long.BYTES * 2 + Integer.BYTES * 2 + 1)
+                + categoryIds.length * 64L + postingBytes;
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    void add(UUID id, String description, int day, TransactionType type, UUID categoryId) {
+        List<String> terms = SearchTerms.of(description);
+        if (terms.isEmpty()) {
+            return;
+        }
+        ensureCapacity(size + 1);
+        int slot = size++;
+        idHigh[slot] = id.getMostSignificantBits();
+        idLow[slot] = id.getLeastSignificantBits();
+        days[slot] = day;
+        types[slot] = (byte) type.ordinal();
+        categories[slot] = categoryId != null ? ordinal(categoryId) : UNCATEGORIZED;
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                list = new Postings();
+                postings.put(term, list);
+                postingBytes += TERM_OVERHEAD + 2L * term.length() + 4L * list.slots.length;
+            }
+            if (list.size == list.slots.length) {
+                postingBytes += 4L * list.slots.length;
+                list.slots = Arrays.copyOf(list.slots, list.slots.length * 2);
+            }
+            list.slots[list.size++] = slot;
+        }
+    }
+
+    // description is the one the transaction was indexed with. False when the transaction should have been
+    // indexed but is not, meaning the index no longer reflects the table.
+    boolean remove(UUID id, String description) {
+        List<String> terms = SearchTerms.of(description);
+        if (terms.isEmpty()) {
+            return true;
+        }
+        // The transaction sits in every one of its terms' lists; look for it in the shortest
+        Postings shortest = null;
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return false;
+            }
+            if (shortest == null || list.size < shortest.size) {
+                shortest = list;
+            }
+        }
+        int slot = find(shortest, id);
+        if (slot < 0) {
+            return false;
+        }
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            int index = Arrays.binarySearch(list.slots, 0, list.size, slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(list.slots, index + 1, list.slots, index, list.size - index - 1);
+            if (--list.size == 0) {
+                postings.remove(term);
+                postingBytes -= TERM_OVERHEAD + 2L * term.length() + 4L * list.slots.length;
+            }
+        }
+        types[slot] = REMOVED;
+        removed++;
+        if (removed >= COMPACT_THRESHOLD && removed * 2 >= size) {
+            compact();
+        }
+        return true;
+    }
+
+    // Transactions whose description has a word starting with every term, best first: more terms matching
+    // a whole word rank higher, then newer dates, then ids in database order. Callers hold the read lock.
+    List<UUID> search(List<String> terms, TransactionType type, UUID categoryId,
+                      int fromDay, int toDay, int limit) {
+        int category = UNCATEGORIZED;
+        if (categoryId != null) {
+            Integer ordinal = categoryOrdinals.get(categoryId);
+            if (ordinal == null) {
+                return List.of();
+            }
+            category = ordinal;
+        }
+        byte typeOrdinal = type != null ? (byte) type.ordinal() : REMOVED;
+
+        // matched counts the query terms a slot has met so far; a slot that missed one can never catch up
+        byte[] matched = new byte[size];
+        byte[] whole = new byte[size];
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            NavigableMap<String, Postings> expansions = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            if (expansions.isEmpty()) {
+                return List.of();
+            }
+            for (Map.Entry<String, Postings> entry : expansions.entrySet()) {
+                boolean exact = entry.getKey().equals(term);
+                Postings list = entry.getValue();
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    if (matched[slot] == t) {
+                        matched[slot] = (byte) (t + 1);
+                        if (exact) {
+                            whole[slot]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Min-heap of the best slots so far, worst on top
+        int[] heap = new int[Math.min(limit, size)];
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (matched[slot] != terms.size()
+                    || days[slot] < fromDay || days[slot] > toDay
+                    || (type != null && types[slot] != typeOrdinal)
+                    || (categoryId != null && categories[slot] != category)) {
+                continue;
+            }
+            if (count < heap.length) {
+                heap[count] = slot;
+                siftUp(heap, count++, whole);
+            } else if (compare(slot, heap[0], whole) > 0) {
+                heap[0] = slot;
+                siftDown(heap, count, whole);
+            }
+        }
+
+        UUID[] ids = new UUID[count];
+        while (count > 0) {
+            ids[--count] = id(heap[0]);
+            heap[0] = heap[count];
+            siftDown(heap, count, whole);
+        }
+        return Arrays.asList(ids);
+    }
+
+    // Positive when slot a ranks above slot b
+    private int compare(int a, int b, byte[] whole) {
+        if (whole[a] != whole[b]) {
+            return Integer.compare(whole[a], whole[b]);
+        }
+        if (days[a] != days[b]) {
+            return Integer.compare(days[a], days[b]);
+        }
+        // Lower ids first, compared unsigned like PostgreSQL's uuid ordering
+        int high = Long.compareUnsigned(idHigh[b], idHigh[a]);
+        return high != 0 ? high : Long.compareUnsigned(idLow[b], idLow[a]);
+    }
+
+    private void siftUp(int[] heap, int index, byte[] whole) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(slot, heap[parent], whole) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int[] heap, int count, byte[] whole) {
+        if (count == 0) {
+            return;
+        }
+        int slot = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && compare(heap[child + 1], heap[child], whole) < 0) {
+                child++;
+            }
+            if (compare(slot, heap[child], whole) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    private UUID id(int slot) {
+        return new UUID(idHigh[slot], idLow[slot]);
+    }
+
+    private int find(Postings list, UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        for (int i = 0; i < list.size; i++) {
+            int slot = list.slots[i];
+            if (idHigh[slot] == high && idLow[slot] == low) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Drops removed slots and renumbers the rest in order, which keeps every posting list ascending
+    private void compact() {
+        int[] renumbered = new int[size];
+        int live = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (types[slot] == REMOVED) {
+                continue;
+            }
+            renumbered[slot] = live;
+            idHigh[live] = idHigh[slot];
+            idLow[live] = idLow[slot];
+            days[live] = days[slot];
+            types[live] = types[slot];
+            categories[live] = categories[slot];
+            live++;
+        }
+        for (Postings list : postings.values()) {
+            for (int i = 0; i < list.size; i++) {
+                list.slots[i] = renumbered[list.slots[i]];
+            }
+        }
+        size = live;
+        removed = 0;
+    }
+
+    private int ordinal(UUID categoryId) {
+        Integer ordinal = categoryOrdinals.get(categoryId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        categoryOrdinals.put(categoryId, categoryCount);
+        return categoryCount++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= idHigh.length) {
+            return;
+        }
+        int grown = Math.max(capacity, idHigh.length + (idHigh.length >> 1));
+        idHigh = Arrays.copyOf(idHigh, grown);
+        idLow = Arrays.copyOf(idLow, grown);
+        days = Arrays.copyOf(days, grown);
+        types = Arrays.copyOf(types, grown);
+        categories = Arrays.copyOf(categories, grown);
+    }
+}
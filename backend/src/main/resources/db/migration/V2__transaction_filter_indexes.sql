@@ -0,0 +1,19 @@
+-- Composite indexes for the filter shapes the API issues; every transaction query is scoped to one user.
+-- Built concurrently so writes are not blocked, which makes Flyway run this script outside a transaction.
+
+-- No filter / date range, plus keyset pagination order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_keyset
+    ON transactions(user_id, date DESC, created_at DESC, id DESC);
+
+-- Category filter, optionally with a date range
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_category_date
+    ON transactions(user_id, category_id, date DESC);
+
+-- Type filter, optionally with a date range
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_type_date
+    ON transactions(user_id, type, date DESC);
+
+-- Covered by the composites above; date and type alone never narrow a single user's rows
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_user_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_date;
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_type;
@@ -0,0 +1,16 @@
+-- Ids of deleted transactions, kept for a retention window so delta sync can tell clients what to drop.
+-- Rows older than sync.tombstones.retention-days are compacted by the backend.
+
+CREATE TABLE IF NOT EXISTS transaction_tombstones (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Delta sync reads one user's tombstones in (deleted_at, id) order
+CREATE INDEX IF NOT EXISTS idx_transaction_tombstones_user_deleted
+    ON transaction_tombstones(user_id, deleted_at, id);
+
+-- Compaction deletes by age across all users
+CREATE INDEX IF NOT EXISTS idx_transaction_tombstones_deleted_at
+    ON transaction_tombstones(deleted_at);
@@ -0,0 +1,5 @@
+-- Delta sync reads one user's rows in (updated_at, id) order after a cursor.
+-- Built concurrently so writes are not blocked, which makes Flyway run this script outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_updated
+    ON transactions(user_id, updated_at, id);
@@ -0,0 +1,2 @@
+-- Lets GIN indexes lead with a plain column, so full-text lookups can be scoped to one user inside the index.
+CREATE EXTENSION IF NOT EXISTS btree_gin;
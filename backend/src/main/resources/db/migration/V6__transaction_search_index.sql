@@ -0,0 +1,7 @@
+-- Inverted index over descriptions for transaction search, keyed by user first so a lookup never touches
+-- other users' postings. The 'simple' configuration lowercases without stemming, which suits merchant names.
+-- Queries must repeat the indexed expression exactly. Built concurrently, so Flyway runs this script outside
+-- a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_search
+    ON transactions USING gin (user_id, to_tsvector('simple', coalesce(description, '')));
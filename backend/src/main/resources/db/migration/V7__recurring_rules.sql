@@ -0,0 +1,25 @@
+-- Recurring transaction rules. The backend's scheduler turns each due occurrence into a transaction and
+-- advances next_occurrence in the same database transaction, so a rule is never materialized twice.
+
+CREATE TABLE IF NOT EXISTS recurring_rules (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    bucket SMALLINT NOT NULL,
+    category_id UUID REFERENCES categories(id) ON DELETE SET NULL,
+    amount DECIMAL(12, 2) NOT NULL CHECK (amount >= 0),
+    type VARCHAR(10) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    description TEXT,
+    frequency VARCHAR(10) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY', 'MONTHLY', 'YEARLY')),
+    start_date DATE NOT NULL,
+    end_date DATE,
+    occurrences INTEGER NOT NULL DEFAULT 0,
+    next_occurrence DATE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_recurring_rules_user ON recurring_rules(user_id);
+
+-- The scheduler claims due rules one user-hash bucket at a time; finished rules drop out of the index
+CREATE INDEX IF NOT EXISTS idx_recurring_rules_bucket_due
+    ON recurring_rules(bucket, next_occurrence) WHERE next_occurrence IS NOT NULL;
@@ -0,0 +1,12 @@
+-- Monthly spending limits per expense category. Spending is read from transaction_monthly_rollups,
+-- which every transaction write already adjusts, so checking a budget never sums transactions.
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    category_id UUID NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+    amount DECIMAL(12, 2) NOT NULL CHECK (amount > 0),
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    CONSTRAINT uk_budget_user_category UNIQUE (user_id, category_id)
+);
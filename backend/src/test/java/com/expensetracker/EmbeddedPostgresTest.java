@@ -0,0 +1,132 @@
+package com.expensetracker;
+
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.RollupService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Runs the application against a throwaway embedded PostgreSQL, started once per test JVM and migrated by Flyway.
+// PostgreSQL refuses to start as root, so these tests are skipped there; run them as a regular user.
+@SpringBootTest
+public abstract class EmbeddedPostgresTest {
+
+    private static final String[] EXPENSE_CATEGORIES = {
+            "Groceries", "Food & Dining", "Transportation", "Shopping", "Entertainment", "Bills & Utilities",
+            "Healthcare", "Rent"};
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance"};
+    private static final String[] MERCHANTS = {
+            "uber", "swiggy", "amazon", "rent", "electricity", "netflix", "pharmacy", "petrol", "salary",
+            "client invoice", "movie tickets", "gym", "internet"};
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    @Autowired
+    protected RollupService rollupService;
+
+    @BeforeAll
+    static void requireRegularUser() {
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")),
+                "PostgreSQL does not start as root");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> postgres().getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The data directory is temporary either way
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    // A new user with the given number of transactions spread over the last two years, rollups included
+    protected UUID seedUser(int transactions) {
+        return seedUsers(1, transactions).get(0);
+    }
+
+    // Statistics are refreshed once, after all the users are in
+    protected List<UUID> seedUsers(int users, int transactionsPerUser) {
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userIds.add(insertUser(transactionsPerUser));
+        }
+        jdbc.execute("ANALYZE");
+        return userIds;
+    }
+
+    private UUID insertUser(int transactions) {
+        UUID userId = UUID.randomUUID();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Random random = new Random(transactions);
+
+        List<UUID> expenseCategories = insertCategories(userId, EXPENSE_CATEGORIES, TransactionType.EXPENSE, now);
+        List<UUID> incomeCategories = insertCategories(userId, INCOME_CATEGORIES, TransactionType.INCOME, now);
+
+        List<Object[]> rows = new ArrayList<>(transactions);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < transactions; i++) {
+            boolean income = i % 10 == 0;
+            List<UUID> categories = income ? incomeCategories : expenseCategories;
+            rows.add(new Object[]{UUID.randomUUID(), userId, categories.get(random.nextInt(categories.size())),
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2),
+                    (income ? TransactionType.INCOME : TransactionType.EXPENSE).name(),
+                    MERCHANTS[random.nextInt(MERCHANTS.length)] + " #" + i,
+                    Date.valueOf(today.minusDays(random.nextInt(730))), now, now});
+        }
+        jdbc.batchUpdate("INSERT INTO transactions (id, user_id, category_id, amount, type, description, "
+                + "date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        rollupService.rebuild(userId);
+        return userId;
+    }
+
+    private List<UUID> insertCategories(UUID userId, String[] names, TransactionType type, Timestamp now) {
+        List<UUID> ids = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (String name : names) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            rows.add(new Object[]{id, userId, name, type.name(), now});
+        }
+        jdbc.batchUpdate("INSERT INTO categories (id, user_id, name, type, created_at) VALUES (?, ?, ?, ?, ?)",
+                rows);
+        return ids;
+    }
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtConfigTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final JwtConfig jwtConfig = new JwtConfig(SECRET, 100, new SimpleMeterRegistry());
+
+    @Test
+    void acceptsATokenSignedWithTheSecret() {
+        String subject = UUID.randomUUID().toString();
+
+        assertEquals(subject, jwtConfig.getUserIdFromToken(token(subject, Algorithm.HMAC256(SECRET))));
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherSecret() {
+        String token = token(UUID.randomUUID().toString(), Algorithm.HMAC256("another-secret"));
+
+        assertThrows(RuntimeException.class, () -> jwtConfig.verifyToken(token));
+    }
+
+    @Test
+    void rejectsAnUnsignedToken() {
+        String token = token(UUID.randomUUID().toString(), Algorithm.none());
+
+        assertThrows(RuntimeException.class, () -> jwtConfig.verifyToken(token));
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        String token = JWT.create()
+                .withSubject(UUID.randomUUID().toString())
+                .withExpiresAt(Instant.now().minusSeconds(60))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        assertThrows(RuntimeException.class, () -> jwtConfig.verifyToken(token));
+    }
+
+    private static String token(String subject, Algorithm algorithm) {
+        return JWT.create()
+                .withSubject(subject)
+                .withExpiresAt(Instant.now().plusSeconds(3600))
+                .sign(algorithm);
+    }
+}
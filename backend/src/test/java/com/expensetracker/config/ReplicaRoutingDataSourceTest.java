@@ -0,0 +1,29 @@
+package com.expensetracker.config;
+
+import com.expensetracker.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void primaryTransactionIsNotReadOnlyInsideAReadOnlyTransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        TransactionTemplate primary = ReplicaRoutingDataSource.primaryTransaction(transactionManager);
+
+        Boolean innerReadOnly = readOnly.execute(outer ->
+                primary.execute(inner -> TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+
+        assertEquals(Boolean.FALSE, innerReadOnly);
+    }
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.config;
+
+// Runs a piece of code under its own statement tally
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static SqlStatementCounter.Tally tally(Runnable action) {
+        SqlStatementCounter.start();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            SqlStatementCounter.stop();
+            throw e;
+        }
+        return SqlStatementCounter.stop();
+    }
+
+    public static int count(Runnable action) {
+        return tally(action).getTotal();
+    }
+
+    // Locks in a query count: fails with the statements that ran when there were more than max
+    public static int assertStatements(int max, Runnable action) {
+        SqlStatementCounter.Tally tally = tally(action);
+        if (tally.getTotal() > max) {
+            StringBuilder message = new StringBuilder("Expected at most " + max + " SQL statements but "
+                    + tally.getTotal() + " ran:");
+            tally.getStatements().forEach((sql, times) -> message.append("\n  ").append(times).append("x ").append(sql));
+            throw new AssertionError(message.toString());
+        }
+        return tally.getTotal();
+    }
+}
@@ -0,0 +1,113 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.EmbeddedPostgresTest;
+import com.expensetracker.config.AuthenticatedUser;
+import com.expensetracker.config.SqlStatements;
+import com.expensetracker.dto.BatchAction;
+import com.expensetracker.dto.BatchOperation;
+import com.expensetracker.dto.BatchRequest;
+import com.expensetracker.dto.TransactionRequest;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.expensetracker.config.SqlStatements.assertStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Pins the SQL statements each endpoint issues, and that none of them grows with the user's history. The
+// handlers are called directly, so the counts cover the controller and everything beneath it.
+class TransactionControllerStatementsTest extends EmbeddedPostgresTest {
+
+    private static final int ROWS = 500;
+
+    @Autowired
+    private TransactionController controller;
+
+    @Test
+    void summary() {
+        assertSameForTenTimesTheRows(3, user -> controller.getTransactionSummary(user, null, null, request()));
+    }
+
+    @Test
+    void list() {
+        assertSameForTenTimesTheRows(1, user -> controller.getAllTransactions(user, null, null, null, null,
+                request()));
+    }
+
+    @Test
+    void page() {
+        assertSameForTenTimesTheRows(2, user -> {
+            String cursor = controller.getTransactionPage(user, null, null, null, null, null, 50, false)
+                    .getBody().getData().getNextCursor();
+            controller.getTransactionPage(user, null, null, null, null, cursor, 50, false);
+        });
+    }
+
+    // Inserts are JDBC-batched and the rollup deltas go in one upsert, however many operations there are
+    @Test
+    void batch() {
+        AuthenticatedUser user = user(seedUser(ROWS));
+
+        int statements = assertStatements(2, () -> applyCreates(user, 20));
+        assertEquals(statements, SqlStatements.count(() -> applyCreates(user, 200)));
+    }
+
+    @Test
+    void pdf() {
+        assertSameForTenTimesTheRows(4, user -> {
+            ResponseEntity<StreamingResponseBody> response = controller.downloadPdfReport(user, null, null,
+                    request());
+            try {
+                response.getBody().writeTo(new ByteArrayOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void applyCreates(AuthenticatedUser user, int count) {
+        List<BatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TransactionRequest transaction = new TransactionRequest(null, BigDecimal.valueOf(100 + i),
+                    TransactionType.EXPENSE, "batch #" + i, LocalDate.now().minusDays(i));
+            operations.add(new BatchOperation(BatchAction.CREATE, null, transaction));
+        }
+        assertEquals("Batch applied successfully",
+                controller.applyBatch(user, new BatchRequest(operations)).getBody().getMessage());
+    }
+
+    private interface Call {
+        void run(AuthenticatedUser user);
+    }
+
+    private void assertSameForTenTimesTheRows(int max, Call call) {
+        AuthenticatedUser small = user(seedUser(ROWS));
+        AuthenticatedUser large = user(seedUser(ROWS * 10));
+
+        int statements = assertStatements(max, () -> call.run(small));
+        assertEquals(statements, SqlStatements.count(() -> call.run(large)));
+    }
+
+    private static AuthenticatedUser user(UUID userId) {
+        return new AuthenticatedUser(userId, "user@example.com");
+    }
+
+    private static WebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,182 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.EmbeddedPostgresTest;
+import com.expensetracker.config.SqlStatements;
+import com.expensetracker.dto.TransactionCursor;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs each transaction filter shape through the service against a multi-user database, captures the SQL
+// Hibernate generated and EXPLAINs it with the same parameters, expecting one of the shape's indexes
+class TransactionIndexUsageTest extends EmbeddedPostgresTest {
+
+    private static final int USERS = 20;
+    private static final int TRANSACTIONS_PER_USER = 5_000;
+
+    private static final String KEYSET = "idx_transactions_user_keyset";
+    private static final String CATEGORY = "idx_transactions_user_category_date";
+    private static final String TYPE = "idx_transactions_user_type_date";
+    private static final String SEARCH = "idx_transactions_user_search";
+
+    // Seeded once for the class; the application context, and so the database, is shared between tests
+    private static UUID userId;
+
+    @Autowired
+    private TransactionService service;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private UUID categoryId;
+    private final LocalDate end = LocalDate.now();
+    private final LocalDate start = end.minusMonths(3);
+
+    @BeforeEach
+    void seed() {
+        if (userId == null) {
+            userId = seedUsers(USERS, TRANSACTIONS_PER_USER).get(USERS / 2);
+        }
+        categoryId = categoryService.getCategoriesByType(userId, TransactionType.EXPENSE).stream()
+                .map(Category::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // A user's full history: bitmap-scanning the smallest user_id-prefixed index and sorting is fine
+    @Test
+    void user() {
+        assertUsesIndex(plan(() -> service.getTransactionsByFilters(userId, null, null, null, null), userId),
+                KEYSET, TYPE, CATEGORY, SEARCH);
+    }
+
+    @Test
+    void userAndDates() {
+        assertUsesIndex(plan(() -> service.getTransactionsByFilters(userId, null, null, start, end),
+                userId, start, end), KEYSET);
+    }
+
+    @Test
+    void userAndCategory() {
+        assertUsesIndex(plan(() -> service.getTransactionsByFilters(userId, null, categoryId, null, null),
+                userId, categoryId), CATEGORY);
+    }
+
+    @Test
+    void userCategoryAndDates() {
+        assertUsesIndex(plan(() -> service.getTransactionsByFilters(userId, null, categoryId, start, end),
+                userId, categoryId, start, end), CATEGORY);
+    }
+
+    @Test
+    void userAndType() {
+        assertUsesIndex(plan(() -> service.getTransactionsByFilters(userId, TransactionType.INCOME, null, null, null),
+                userId, TransactionType.INCOME.name()), TYPE);
+    }
+
+    @Test
+    void userTypeAndDates() {
+        assertUsesIndex(plan(() -> service.getTransactionsByFilters(userId, TransactionType.INCOME, null, start, end),
+                userId, TransactionType.INCOME.name(), start, end), TYPE, KEYSET);
+    }
+
+    @Test
+    void page() {
+        assertUsesIndex(plan(() -> service.getTransactionPage(userId, null, null, null, null, null, 50, false),
+                userId, 51), KEYSET);
+    }
+
+    // The seek must position the index scan at the cursor rather than filter every row of the user up to it
+    @Test
+    void pageAfterCursor() {
+        Transaction last = service.getTransactionPage(userId, null, null, null, null, null, 50, false)
+                .getTransactions().get(49);
+        String cursor = TransactionCursor.after(last).encode();
+
+        String plan = plan(() -> service.getTransactionPage(userId, null, null, null, null, cursor, 50, false),
+                userId, last.getDate(), last.getDate(), last.getDate(), last.getCreatedAt(), last.getCreatedAt(),
+                last.getId(), 51);
+
+        assertUsesIndex(plan, KEYSET);
+        String indexCond = plan.lines().filter(line -> line.contains("Index Cond:")).findFirst().orElse("");
+        assertTrue(indexCond.contains("date <="), "Cursor date is not an index condition:\n" + plan);
+    }
+
+    @Test
+    void pageAndCategory() {
+        assertUsesIndex(plan(() -> service.getTransactionPage(userId, null, categoryId, null, null, null, 50, false),
+                userId, categoryId, 51), CATEGORY);
+    }
+
+    @Test
+    void search() {
+        assertUsesIndex(plan(() -> service.searchTransactions(userId, "uber", null, null, null, null, 50),
+                "uber:*", "uber", userId, 50), SEARCH);
+    }
+
+    @Test
+    void searchTypeAndDates() {
+        assertUsesIndex(plan(() -> service.searchTransactions(userId, "movie tick", TransactionType.EXPENSE, null,
+                        start, end, 50),
+                "movie:* & tick:*", "movie | tick", userId, TransactionType.EXPENSE.name(), start, end, 50), SEARCH);
+    }
+
+    private static void assertUsesIndex(String plan, String... expectedIndexes) {
+        assertFalse(plan.contains("Seq Scan on transactions"), "Sequential scan:\n" + plan);
+        assertTrue(Arrays.stream(expectedIndexes).anyMatch(plan::contains),
+                "None of " + Arrays.toString(expectedIndexes) + " used:\n" + plan);
+    }
+
+    // EXPLAIN of the one statement the call issues, bound to the given parameters
+    private String plan(Runnable call, Object... parameters) {
+        List<String> statements = List.copyOf(SqlStatements.tally(call).getStatements().keySet());
+        assertEquals(1, statements.size(), "Expected a single statement: " + statements);
+        String sql = statements.get(0);
+
+        return jdbc.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                assertEquals(parameters.length, statement.getParameterMetaData().getParameterCount(), sql);
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, jdbcValue(parameters[i]));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static Object jdbcValue(Object value) {
+        if (value instanceof LocalDate date) {
+            return Date.valueOf(date);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime);
+        }
+        return value;
+    }
+}
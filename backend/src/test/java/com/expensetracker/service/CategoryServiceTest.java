@@ -0,0 +1,29 @@
+package com.expensetracker.service;
+
+import com.expensetracker.EmbeddedPostgresTest;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void deletingACategoryMovesItsRollupsToUncategorized() {
+        UUID userId = seedUser(1000);
+        UUID categoryId = categoryService.getCategoriesByType(userId, TransactionType.EXPENSE).get(0).getId();
+
+        categoryService.deleteCategory(categoryId, userId);
+
+        assertTrue(rollupService.verify(userId).isEmpty());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM transaction_monthly_rollups "
+                + "WHERE user_id = ? AND category_id = ?", Long.class, userId, categoryId));
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataVersionServiceTest {
+
+    @Test
+    void aUserNeverReadsAVersionFromBeforeTheirLastChange() {
+        DataVersionService service = new DataVersionService(10, 5000);
+        UUID userId = UUID.randomUUID();
+        Set<String> earlier = new HashSet<>();
+
+        for (int round = 0; round < 50; round++) {
+            earlier.add(service.getVersion(userId));
+            service.bump(userId);
+            // Crowds the user out of the bounded map
+            for (int i = 0; i < 100; i++) {
+                service.bump(UUID.randomUUID());
+            }
+            String current = service.getVersion(userId);
+            assertFalse(earlier.contains(current), "Version " + current + " was served before a later change");
+        }
+    }
+
+    @Test
+    void changesAreRememberedForTheStickinessWindow() throws InterruptedException {
+        DataVersionService service = new DataVersionService(10, 200);
+        UUID userId = UUID.randomUUID();
+        Thread.sleep(250);
+
+        service.bump(userId);
+        assertTrue(service.changedWithin(userId, Duration.ofMillis(200)));
+
+        Thread.sleep(250);
+        assertFalse(service.changedWithin(userId, Duration.ofMillis(200)));
+        // Only the change time is forgotten; the version still differs from one never changed
+        assertNotEquals(service.getVersion(userId), service.getVersion(UUID.randomUUID()));
+    }
+}
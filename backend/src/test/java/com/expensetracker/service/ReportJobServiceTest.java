@@ -0,0 +1,87 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ReportJobStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ReportJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @TempDir
+    Path cacheDir;
+
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ReportJobService(mock(PdfService.class), new DataVersionService(1000, 5000), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 60L);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void sweepKeepsAnOldArtifactThatACacheHitStillPointsAt() throws Exception {
+        UUID userId = UUID.randomUUID();
+        ReportJobStatus rendered = service.submit(userId, "user@example.com", START, END);
+        Path artifact = awaitArtifact(rendered, userId);
+        // As if the rendering job had aged out while its artifact stayed in the cache
+        Files.setLastModifiedTime(artifact, FileTime.from(Instant.now().minusSeconds(2 * 3600)));
+        ((Map<?, ?>) ReflectionTestUtils.getField(service, "jobs")).remove(rendered.getJobId());
+
+        ReportJobStatus hit = service.submit(userId, "user@example.com", START, END);
+        assertTrue(hit.isCached());
+        service.evictExpired();
+
+        assertEquals(artifact, service.getArtifact(hit.getJobId(), userId));
+        assertTrue(Files.exists(artifact));
+    }
+
+    @Test
+    void sweepDeletesAnOldArtifactNoJobPointsAt() throws Exception {
+        Path orphan = Files.createFile(cacheDir.resolve("orphan.pdf"));
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minusSeconds(2 * 3600)));
+
+        service.evictExpired();
+
+        assertFalse(Files.exists(orphan));
+    }
+
+    private Path awaitArtifact(ReportJobStatus submitted, UUID userId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            // Completed and released, so the next submit for the same report is served from the cache
+            if (ReportJobService.COMPLETED.equals(service.getStatus(submitted.getJobId(), userId).getStatus())
+                    && ((Map<?, ?>) ReflectionTestUtils.getField(service, "inFlight")).isEmpty()) {
+                return service.getArtifact(submitted.getJobId(), userId);
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Report job did not complete");
+    }
+}
@@ -0,0 +1,43 @@
+package com.expensetracker.service;
+
+import com.expensetracker.EmbeddedPostgresTest;
+import com.expensetracker.config.SqlStatements;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The summary is read from the monthly rollups, so its statement count must not depend on how many
+// transactions the user has
+class TransactionSummaryStatementsTest extends EmbeddedPostgresTest {
+
+    private static final int ROWS = 500;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void allTimeSummaryIssuesTheSameStatementsForTenTimesTheRows() {
+        UUID small = seedUser(ROWS);
+        UUID large = seedUser(ROWS * 10);
+
+        assertEquals(
+                SqlStatements.count(() -> transactionService.getTransactionSummary(small, null, null)),
+                SqlStatements.count(() -> transactionService.getTransactionSummary(large, null, null)));
+    }
+
+    @Test
+    void rangeSummaryIssuesTheSameStatementsForTenTimesTheRows() {
+        UUID small = seedUser(ROWS);
+        UUID large = seedUser(ROWS * 10);
+        LocalDate start = LocalDate.now().minusMonths(6).withDayOfMonth(10);
+        LocalDate end = LocalDate.now().minusDays(3);
+
+        assertEquals(
+                SqlStatements.count(() -> transactionService.getTransactionSummary(small, start, end)),
+                SqlStatements.count(() -> transactionService.getTransactionSummary(large, start, end)));
+    }
+}
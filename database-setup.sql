@@ -4,6 +4,9 @@
 -- Enable UUID extension
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
+-- Lets the transaction search index lead with user_id
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
 -- Categories Table
 CREATE TABLE IF NOT EXISTS categories (
     id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
@@ -27,18 +30,78 @@ CREATE TABLE IF NOT EXISTS transactions (
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
 );
 
+-- Monthly Rollups Table (maintained by the backend on every transaction write)
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollups (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES auth.users(id) ON DELETE CASCADE,
+    month DATE NOT NULL,
+    type VARCHAR(10) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    category_id UUID NOT NULL,
+    total DECIMAL(14, 2) NOT NULL,
+    count BIGINT NOT NULL,
+    CONSTRAINT uk_rollup_user_month_type_category UNIQUE (user_id, month, type, category_id)
+);
+
+-- Deleted transaction ids for delta sync (compacted by the backend after the retention window)
+CREATE TABLE IF NOT EXISTS transaction_tombstones (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES auth.users(id) ON DELETE CASCADE,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Recurring Transaction Rules (materialized into transactions by the backend's scheduler)
+CREATE TABLE IF NOT EXISTS recurring_rules (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES auth.users(id) ON DELETE CASCADE,
+    bucket SMALLINT NOT NULL,
+    category_id UUID REFERENCES categories(id) ON DELETE SET NULL,
+    amount DECIMAL(12, 2) NOT NULL CHECK (amount >= 0),
+    type VARCHAR(10) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    description TEXT,
+    frequency VARCHAR(10) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY', 'MONTHLY', 'YEARLY')),
+    start_date DATE NOT NULL,
+    end_date DATE,
+    occurrences INTEGER NOT NULL DEFAULT 0,
+    next_occurrence DATE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+-- Budgets Table (monthly limit per expense category, checked against the monthly rollups)
+CREATE TABLE IF NOT EXISTS budgets (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES auth.users(id) ON DELETE CASCADE,
+    category_id UUID NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+    amount DECIMAL(12, 2) NOT NULL CHECK (amount > 0),
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    CONSTRAINT uk_budget_user_category UNIQUE (user_id, category_id)
+);
+
 -- Indexes for better query performance
-CREATE INDEX IF NOT EXISTS idx_transactions_user_id ON transactions(user_id);
+-- (the backend's Flyway migrations keep these in sync on existing databases)
 CREATE INDEX IF NOT EXISTS idx_transactions_category_id ON transactions(category_id);
-CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(date);
-CREATE INDEX IF NOT EXISTS idx_transactions_type ON transactions(type);
 CREATE INDEX IF NOT EXISTS idx_categories_user_id ON categories(user_id);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_keyset ON transactions(user_id, date DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category_date ON transactions(user_id, category_id, date DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_date ON transactions(user_id, type, date DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated ON transactions(user_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_search ON transactions USING gin (user_id, to_tsvector('simple', coalesce(description, '')));
+CREATE INDEX IF NOT EXISTS idx_transaction_tombstones_user_deleted ON transaction_tombstones(user_id, deleted_at, id);
+CREATE INDEX IF NOT EXISTS idx_transaction_tombstones_deleted_at ON transaction_tombstones(deleted_at);
+CREATE INDEX IF NOT EXISTS idx_recurring_rules_user ON recurring_rules(user_id);
+CREATE INDEX IF NOT EXISTS idx_recurring_rules_bucket_due ON recurring_rules(bucket, next_occurrence) WHERE next_occurrence IS NOT NULL;
 
 -- Row Level Security Policies
 
 -- Enable RLS
 ALTER TABLE categories ENABLE ROW LEVEL SECURITY;
 ALTER TABLE transactions ENABLE ROW LEVEL SECURITY;
+ALTER TABLE recurring_rules ENABLE ROW LEVEL SECURITY;
+ALTER TABLE budgets ENABLE ROW LEVEL SECURITY;
+-- Maintained by the backend alone: no policies, so RLS denies every client role
+ALTER TABLE transaction_monthly_rollups ENABLE ROW LEVEL SECURITY;
+ALTER TABLE transaction_tombstones ENABLE ROW LEVEL SECURITY;
 
 -- Categories Policies
 CREATE POLICY "Users can view their own categories" 
@@ -74,6 +137,42 @@ CREATE POLICY "Users can delete their own transactions"
     ON transactions FOR DELETE 
     USING (auth.uid() = user_id);
 
+-- Recurring Rules Policies
+CREATE POLICY "Users can view their own recurring rules" 
+    ON recurring_rules FOR SELECT 
+    USING (auth.uid() = user_id);
+
+CREATE POLICY "Users can insert their own recurring rules" 
+    ON recurring_rules FOR INSERT 
+    WITH CHECK (auth.uid() = user_id);
+
+CREATE POLICY "Users can update their own recurring rules" 
+    ON recurring_rules FOR UPDATE 
+    USING (auth.uid() = user_id)
+    WITH CHECK (auth.uid() = user_id);
+
+CREATE POLICY "Users can delete their own recurring rules" 
+    ON recurring_rules FOR DELETE 
+    USING (auth.uid() = user_id);
+
+-- Budgets Policies
+CREATE POLICY "Users can view their own budgets" 
+    ON budgets FOR SELECT 
+    USING (auth.uid() = user_id);
+
+CREATE POLICY "Users can insert their own budgets" 
+    ON budgets FOR INSERT 
+    WITH CHECK (auth.uid() = user_id);
+
+CREATE POLICY "Users can update their own budgets" 
+    ON budgets FOR UPDATE 
+    USING (auth.uid() = user_id)
+    WITH CHECK (auth.uid() = user_id);
+
+CREATE POLICY "Users can delete their own budgets" 
+    ON budgets FOR DELETE 
+    USING (auth.uid() = user_id);
+
 -- Function to update updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
@@ -124,3 +223,7 @@ GRANT USAGE ON SCHEMA public TO postgres, anon, authenticated, service_role;
 GRANT ALL ON ALL TABLES IN SCHEMA public TO postgres, anon, authenticated, service_role;
 GRANT ALL ON ALL SEQUENCES IN SCHEMA public TO postgres, anon, authenticated, service_role;
 GRANT ALL ON ALL ROUTINES IN SCHEMA public TO postgres, anon, authenticated, service_role;
+
+-- Tables only the backend reads and writes; it connects as their owner
+REVOKE ALL ON transaction_monthly_rollups FROM anon, authenticated;
+REVOKE ALL ON transaction_tombstones FROM anon, authenticated;